@@ -0,0 +1,96 @@
+package com.smartsecurity.system.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request's bearer token: the old filter path
+ * (three full parses, key rebuilt each time) against a single
+ * {@link JwtService#validate} with and without the verified-token cache,
+ * plus the two public entry points the filter and controllers call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtService(SECRET, 86_400_000L, 0, false);
+        cached = new JwtService(SECRET, 86_400_000L, 10_000, false);
+        user = User.withUsername("guard@example.com").password("x").roles("SECURITY_USER").build();
+        token = uncached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String username = legacyClaims(token).getSubject();
+        boolean sameUser = legacyClaims(token).getSubject().equals(username)
+                && username.equals(user.getUsername());
+        return sameUser && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims validateOnce() {
+        return uncached.validate(token);
+    }
+
+    @Benchmark
+    public Claims validateCached() {
+        return cached.validate(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return uncached.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cached.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return uncached.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cached.isTokenValid(token, user);
+    }
+
+    // What JwtService used to do on every call
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
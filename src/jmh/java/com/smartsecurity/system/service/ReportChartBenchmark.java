@@ -0,0 +1,101 @@
+package com.smartsecurity.system.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row and per-response costs of the chart endpoints once the rollup rows
+ * are loaded: converting the driver's day values with
+ * {@link ReportService#toLocalDate} and gap-filling the 5D/1M/6M and
+ * full-year series.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportChartBenchmark {
+
+    private LocalDate today;
+    private Map<LocalDate, Long> perDay;
+
+    private Object localDate;
+    private Object sqlDate;
+    private Object timestamp;
+    private Object localDateTime;
+    private Object dayString;
+    private Object monthString;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.now();
+        // A year of rollups with the odd empty day, like a real tenant
+        perDay = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (LocalDate date = today.minusDays(365); !date.isAfter(today); date = date.plusDays(1)) {
+            if (random.nextInt(10) > 0) {
+                perDay.put(date, (long) random.nextInt(500));
+            }
+        }
+        localDate = today;
+        sqlDate = Date.valueOf(today);
+        timestamp = Timestamp.valueOf(today.atStartOfDay());
+        localDateTime = LocalDateTime.now();
+        dayString = today.toString();
+        monthString = YearMonth.from(today).toString();
+    }
+
+    @Benchmark
+    public void toLocalDate(Blackhole blackhole) {
+        blackhole.consume(ReportService.toLocalDate(localDate));
+        blackhole.consume(ReportService.toLocalDate(sqlDate));
+        blackhole.consume(ReportService.toLocalDate(timestamp));
+        blackhole.consume(ReportService.toLocalDate(localDateTime));
+    }
+
+    @Benchmark
+    public void toLocalDateFromString(Blackhole blackhole) {
+        // The regex-matched fallback
+        blackhole.consume(ReportService.toLocalDate(dayString));
+        blackhole.consume(ReportService.toLocalDate(monthString));
+    }
+
+    @Benchmark
+    public void chartWindows(Blackhole blackhole) {
+        // Same windows as ReportService.getCharts
+        LocalDate endWeekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        YearMonth endMonth = YearMonth.from(today);
+        blackhole.consume(ReportService.dailyPoints(perDay, today.minusDays(4), today));
+        blackhole.consume(ReportService.weeklyPoints(perDay, endWeekStart.minusWeeks(3), endWeekStart));
+        blackhole.consume(ReportService.monthlyPoints(perDay, endMonth.minusMonths(5), endMonth));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> dailyYear() {
+        // Widest range the daily chart accepts
+        return ReportService.dailyPoints(perDay, today.minusDays(365), today);
+    }
+}
@@ -0,0 +1,162 @@
+package com.smartsecurity.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smartsecurity.system.dto.TenantResponse;
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.entity.VisitorHistory;
+import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.enums.UserStatus;
+import com.smartsecurity.system.enums.VisitStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization of the list endpoints with the same Jackson setup
+ * MVC uses. With {@code photoKb > 0} every visitor row also carries an inline
+ * base64 photo of that size, which is what list responses weighed before
+ * photos moved to disk and rows only kept the hash.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "100", "1000" })
+    private int rows;
+
+    // Phone camera JPEGs after the client's resize are typically 80-150 KB
+    @Param({ "0", "120" })
+    private int photoKb;
+
+    private ObjectMapper objectMapper;
+    private Object visitors;
+    private Object histories;
+    private List<TenantResponse> tenants;
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+
+        Tenant tenant = Tenant.builder().id(1L).companyName("Acme Pvt Ltd").companyCode("ACME")
+                .floorNumber(4).officeNumber("402").status(UserStatus.ACTIVE).build();
+        // No tenant on the users: Lombok's hashCode would otherwise walk tenant -> admins -> user
+        User admin = User.builder().id(7).email("admin@acme.example").password("x").fullName("Tenant Admin")
+                .mobileNumber("9800000007").role(Role.TENANT_ADMIN).status(UserStatus.ACTIVE).build();
+
+        List<Visitor> visitorRows = new ArrayList<>(rows);
+        List<VisitorHistory> historyRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime checkIn = LocalDateTime.now().minusMinutes(random.nextInt(600));
+            String hash = String.format("%064x", random.nextLong() & Long.MAX_VALUE);
+            visitorRows.add(Visitor.builder().id((long) i).visitorName("Visitor " + i)
+                    .mobileNumber("98" + (10_000_000 + i)).visitType("MEETING").idProof("AADHAAR")
+                    .photoHash(hash).visitDate(LocalDate.now()).status(VisitStatus.CHECKED_IN)
+                    .tenant(tenant).approvedBy(7).createdBy(3).assignedAdmins(Set.of(admin))
+                    .checkInTime(checkIn).build());
+            historyRows.add(VisitorHistory.builder().id((long) i).visitorId(i).visitorName("Visitor " + i)
+                    .mobileNumber("98" + (10_000_000 + i)).visitType("MEETING").status(VisitStatus.CHECKED_OUT)
+                    .visitDate(LocalDate.now()).checkInTime(checkIn).checkOutTime(checkIn.plusHours(1))
+                    .photoHash(hash).idProof("AADHAAR").tenant(tenant).createdBy(3).approvedBy(7).build());
+        }
+        visitors = withPhotos(visitorRows, random);
+        histories = withPhotos(historyRows, random);
+
+        tenants = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, rows / 10); i++) {
+            tenants.add(TenantResponse.builder().id((long) i).companyName("Company " + i).companyCode("C" + i)
+                    .floorNumber(i % 20).officeNumber(String.valueOf(100 + i)).status(UserStatus.ACTIVE)
+                    .admins(List.of(admin, admin)).build());
+        }
+    }
+
+    @Benchmark
+    public long visitors() throws IOException {
+        return write(visitors);
+    }
+
+    @Benchmark
+    public long visitorHistory() throws IOException {
+        return write(histories);
+    }
+
+    @Benchmark
+    public long tenants() throws IOException {
+        return write(tenants);
+    }
+
+    private long write(Object value) throws IOException {
+        // Straight to a discarding stream, as MVC writes to the response
+        out.count = 0;
+        objectMapper.writeValue(out, value);
+        return out.count;
+    }
+
+    private Object withPhotos(List<?> entities, Random random) {
+        if (photoKb == 0) {
+            return entities;
+        }
+        // Random bytes do not compress, like JPEG data. A small pool keeps
+        // 1000 rows from holding 1000 distinct photos in the heap.
+        String[] photos = new String[16];
+        for (int i = 0; i < photos.length; i++) {
+            byte[] photo = new byte[photoKb * 1024];
+            random.nextBytes(photo);
+            photos[i] = Base64.getEncoder().encodeToString(photo);
+        }
+        List<ObjectNode> result = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            ObjectNode node = objectMapper.valueToTree(entity);
+            node.put("photo", photos[result.size() % photos.length]);
+            result.add(node);
+        }
+        return result;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // writeValue closes the target; keep it reusable
+        }
+    }
+}
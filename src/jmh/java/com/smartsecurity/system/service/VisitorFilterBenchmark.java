@@ -0,0 +1,104 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.enums.VisitStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM-side cost of the list filters {@link VisitorService} used to run over
+ * {@code findAll()} before they became paged queries: checked-in, pending for
+ * a tenant, today's visitors for a tenant, all visitors for a tenant. This is
+ * only the filtering; loading and hydrating every row came on top of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitorFilterBenchmark {
+
+    private static final VisitStatus[] STATUSES = VisitStatus.values();
+
+    @Param({ "10000", "100000" })
+    private int rows;
+
+    private List<Visitor> visitors;
+    private Long tenantId;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        today = LocalDate.now();
+        List<Tenant> tenants = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            tenants.add(Tenant.builder().id(id).companyName("Company " + id).build());
+        }
+        tenantId = 7L;
+
+        visitors = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            VisitStatus status = STATUSES[random.nextInt(STATUSES.length)];
+            LocalDateTime checkIn = status == VisitStatus.CHECKED_IN || status == VisitStatus.CHECKED_OUT
+                    ? LocalDateTime.now().minusHours(random.nextInt(48))
+                    : null;
+            visitors.add(Visitor.builder().id((long) i).visitorName("Visitor " + i)
+                    .mobileNumber("98" + (10_000_000 + i)).status(status)
+                    // A year of history up to two weeks ahead
+                    .visitDate(today.minusDays(random.nextInt(365)).plusDays(14))
+                    .tenant(random.nextInt(20) == 0 ? null : tenants.get(random.nextInt(tenants.size())))
+                    .checkInTime(checkIn)
+                    .checkOutTime(status == VisitStatus.CHECKED_OUT ? checkIn.plusHours(1) : null)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Visitor> checkedIn() {
+        return visitors.stream()
+                .filter(v -> v.getCheckInTime() != null && v.getCheckOutTime() == null)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Visitor> pendingForTenant() {
+        return visitors.stream()
+                .filter(v -> v.getStatus() == VisitStatus.PENDING)
+                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Visitor> todayForTenant() {
+        return visitors.stream()
+                .filter(v -> v.getVisitDate().equals(today))
+                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Visitor> allForTenant() {
+        return visitors.stream()
+                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
+                .toList();
+    }
+}
@@ -0,0 +1,462 @@
+package com.smartsecurity.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smartsecurity.system.SmartSecurityApplication;
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.enums.UserStatus;
+import com.smartsecurity.system.repository.TenantRepository;
+import com.smartsecurity.system.repository.UserRepository;
+import com.smartsecurity.system.service.FakePushSender;
+import com.smartsecurity.system.service.NotificationRecipientRegistry;
+import com.smartsecurity.system.service.TenantDirectory;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Morning-rush load test. Boots the application against an embedded
+ * PostgreSQL with the fake push sender, seeds tenants, admins and guards,
+ * then lets concurrent virtual users drive mixed gate traffic over HTTP:
+ * walk-in, approve, check-in and check-out; vehicle entry and exit; admins
+ * polling their approvals; the super admin polling the dashboard.
+ *
+ * <p>Prints throughput, p50/p95/p99 latency and SQL statements per request
+ * for every endpoint and writes the same table as JSON. Settings are system
+ * properties, see {@link Settings}.
+ */
+@Slf4j
+public class GateLoadTest {
+
+    private static final String PASSWORD = "load-test";
+    private static final String SUPER_ADMIN_EMAIL = "admin@tower.com";
+    private static final String SUPER_ADMIN_PASSWORD = "admin123";
+
+    private final Settings settings;
+    private final String baseUrl;
+    private final Seed seed;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+    private final byte[] photo;
+
+    private GateLoadTest(Settings settings, String baseUrl, Seed seed) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.photo = new byte[settings.photoKb() * 1024];
+        ThreadLocalRandom.current().nextBytes(photo);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        Path workDir = Files.createTempDirectory("gate-load-test");
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                    SmartSecurityApplication.class, LoadTestSupport.class)
+                    .run(applicationArgs(postgres, settings, workDir));
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                Seed seed = seed(context, settings);
+                GateLoadTest test = new GateLoadTest(settings, "http://localhost:" + port, seed);
+                test.login();
+                test.run();
+                log.info("Fake push sender accepted {} messages", context.getBean(FakePushSender.class).getDelivered());
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    // Command-line arguments, so they win over application.yml
+    private static String[] applicationArgs(EmbeddedPostgres postgres, Settings settings, Path workDir) {
+        return new String[] {
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + QueryCounter.class.getName(),
+                "--server.port=0",
+                "--management.server.port=0",
+                "--notification.sender=fake",
+                "--notification.fake.latency-ms=" + settings.pushLatencyMs(),
+                "--photo.storage.dir=" + workDir.resolve("photos"),
+                "--archive.dir=" + workDir.resolve("archive"),
+                "--jwt.expiration=" + TimeUnit.HOURS.toMillis(4),
+                "--logging.level.root=WARN",
+                "--logging.level.com.smartsecurity.system.loadtest=INFO",
+        };
+    }
+
+    private static Seed seed(ConfigurableApplicationContext context, Settings settings) {
+        TenantRepository tenantRepository = context.getBean(TenantRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        // One hash for everyone: BCrypt per user would dominate seeding
+        String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<SeededTenant> tenants = new ArrayList<>();
+        for (int t = 1; t <= settings.tenants(); t++) {
+            Tenant tenant = tenantRepository.save(Tenant.builder()
+                    .companyName("Load Tenant " + t)
+                    .companyCode("LT" + t)
+                    .floorNumber(t % 20)
+                    .officeNumber(String.valueOf(100 + t))
+                    .status(UserStatus.ACTIVE)
+                    .build());
+            List<Account> admins = new ArrayList<>();
+            for (int a = 1; a <= settings.adminsPerTenant(); a++) {
+                String email = "admin" + t + "-" + a + "@load.test";
+                User admin = userRepository.save(User.builder()
+                        .email(email)
+                        .password(password)
+                        .fullName("Admin " + t + "-" + a)
+                        .role(Role.TENANT_ADMIN)
+                        .status(UserStatus.ACTIVE)
+                        .fcmToken("fake-admin-" + t + "-" + a)
+                        .tenant(tenant)
+                        .build());
+                admins.add(new Account(admin.getId(), email));
+            }
+            tenants.add(new SeededTenant(tenant.getId(), tenant.getCompanyName(), admins));
+        }
+
+        List<Account> guards = new ArrayList<>();
+        for (int g = 1; g <= settings.guards(); g++) {
+            String email = "guard" + g + "@load.test";
+            User guard = userRepository.save(User.builder()
+                    .email(email)
+                    .password(password)
+                    .fullName("Guard " + g)
+                    .role(Role.SECURITY_USER)
+                    .status(UserStatus.ACTIVE)
+                    .fcmToken("fake-guard-" + g)
+                    .build());
+            guards.add(new Account(guard.getId(), email));
+        }
+
+        // Seeded behind the services' backs
+        context.getBean(TenantDirectory.class).invalidate();
+        context.getBean(NotificationRecipientRegistry.class).rebuild();
+        log.info("Seeded {} tenants, {} admins and {} guards", tenants.size(),
+                tenants.size() * settings.adminsPerTenant(), guards.size());
+        return new Seed(tenants, guards, new Account(null, SUPER_ADMIN_EMAIL));
+    }
+
+    private void login() throws IOException, InterruptedException {
+        for (SeededTenant tenant : seed.tenants()) {
+            for (Account admin : tenant.admins()) {
+                admin.token = login(admin.email(), PASSWORD);
+            }
+        }
+        for (Account guard : seed.guards()) {
+            guard.token = login(guard.email(), PASSWORD);
+        }
+        seed.superAdmin().token = login(SUPER_ADMIN_EMAIL, SUPER_ADMIN_PASSWORD);
+    }
+
+    private String login(String email, String password) throws IOException, InterruptedException {
+        JsonNode response = call("POST", "/api/v1/auth/login", null, null,
+                Map.of("email", email, "password", password));
+        if (response == null) {
+            throw new IllegalStateException("Login failed for " + email);
+        }
+        return response.get("token").asText();
+    }
+
+    private void run() throws Exception {
+        log.info("Starting {} virtual users: {} s warm-up, {} s measured", settings.users(),
+                settings.warmupSeconds(), settings.durationSeconds());
+        long warmupEnds = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long stopAt = warmupEnds + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        ExecutorService users = Executors.newFixedThreadPool(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            // Spread arrivals over the ramp instead of all at once
+            long startDelay = settings.rampSeconds() * 1000L * i / settings.users();
+            users.submit(() -> virtualUser(startDelay, stopAt));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnds - System.nanoTime());
+        LoadReport.start();
+        long measuredFrom = System.nanoTime();
+        users.shutdown();
+        users.awaitTermination(settings.durationSeconds() + 60L, TimeUnit.SECONDS);
+        LoadReport.stop();
+        users.shutdownNow();
+
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+        List<Map<String, Object>> rows = LoadReport.summarize(seconds);
+        print(rows, seconds);
+        write(rows, seconds);
+    }
+
+    private void virtualUser(long startDelayMillis, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(startDelayMillis);
+            while (System.nanoTime() < stopAt) {
+                // Rough morning mix: mostly people, then vehicles, then polling screens
+                int roll = random.nextInt(100);
+                if (roll < 45) {
+                    visitorFlow(random);
+                } else if (roll < 70) {
+                    vehicleFlow(random);
+                } else if (roll < 90) {
+                    screenPolling(random);
+                } else {
+                    dashboardPolling();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Virtual user stopped: {}", e.toString());
+        }
+    }
+
+    private void visitorFlow(ThreadLocalRandom random) throws IOException, InterruptedException {
+        SeededTenant tenant = pick(seed.tenants(), random);
+        Account guard = pick(seed.guards(), random);
+        Account admin = pick(tenant.admins(), random);
+        long n = sequence.incrementAndGet();
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("visitorName", "Visitor " + n);
+        request.put("mobileNumber", String.valueOf(9_000_000_000L + n));
+        request.put("visitType", "MEETING");
+        request.put("idProof", "AADHAAR");
+        request.put("imageUrl", photo(n));
+        request.put("tenantId", tenant.id());
+        request.put("assignedAdminIds", tenant.admins().stream().map(Account::id).toList());
+        JsonNode visitor = call("POST", "/api/v1/security/visitors/walk-in", null, guard.token, request);
+        if (visitor == null) {
+            return;
+        }
+        long id = visitor.get("id").asLong();
+
+        think(random);
+        if (call("PATCH", "/api/v1/tenant-admin/approvals/{id}", id, admin.token,
+                Map.of("status", "APPROVED")) == null) {
+            return;
+        }
+        think(random);
+        if (call("POST", "/api/v1/security/visitors/{id}/check-in", id, guard.token, null) == null) {
+            return;
+        }
+        think(random);
+        call("POST", "/api/v1/security/visitors/{id}/check-out", id, guard.token, null);
+    }
+
+    private void vehicleFlow(ThreadLocalRandom random) throws IOException, InterruptedException {
+        SeededTenant tenant = pick(seed.tenants(), random);
+        Account guard = pick(seed.guards(), random);
+        long n = sequence.incrementAndGet();
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("vehicleType", random.nextBoolean() ? "CAR" : "BIKE");
+        request.put("vehicleNumber", "KA01LT" + n);
+        request.put("driverName", "Driver " + n);
+        request.put("company", tenant.name());
+        request.put("purpose", "Delivery");
+        request.put("tenantId", tenant.id());
+        JsonNode vehicle = call("POST", "/api/v1/security/vehicles/entry", null, guard.token, request);
+        if (vehicle == null) {
+            return;
+        }
+        long id = vehicle.get("id").asLong();
+
+        think(random);
+        if (call("POST", "/api/v1/security/vehicles/{id}/check-in", id, guard.token, null) == null) {
+            return;
+        }
+        think(random);
+        call("POST", "/api/v1/security/vehicles/{id}/exit", id, guard.token, null);
+    }
+
+    private void screenPolling(ThreadLocalRandom random) throws IOException, InterruptedException {
+        if (random.nextBoolean()) {
+            Account admin = pick(pick(seed.tenants(), random).admins(), random);
+            call("GET", "/api/v1/tenant-admin/approvals/pending/count", null, admin.token, null);
+            call("GET", "/api/v1/tenant-admin/approvals/pending", null, admin.token, null);
+            call("GET", "/api/v1/tenant-admin/visitors/today", null, admin.token, null);
+        } else {
+            Account guard = pick(seed.guards(), random);
+            call("GET", "/api/v1/security/visitors/checked-in", null, guard.token, null);
+            call("GET", "/api/v1/security/vehicles/checked-in", null, guard.token, null);
+            call("GET", "/api/v1/security/occupancy", null, guard.token, null);
+        }
+        think(random);
+    }
+
+    private void dashboardPolling() throws IOException, InterruptedException {
+        String token = seed.superAdmin().token;
+        call("GET", "/api/v1/super-admin/dashboard", null, token, null);
+        call("GET", "/api/v1/super-admin/dashboard/visitors", null, token, null);
+        call("GET", "/api/v1/super-admin/dashboard/vehicles", null, token, null);
+        think(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Sends one request and records it under {@code "METHOD template"}.
+     * Returns the parsed body, or null when the call failed.
+     */
+    private JsonNode call(String method, String template, Object id, String token, Object body)
+            throws IOException, InterruptedException {
+        String path = id != null ? template.replace("{id}", id.toString()) : template;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            LoadReport.recordCall(method + " " + template, System.nanoTime() - started, false);
+            return null;
+        }
+        long elapsed = System.nanoTime() - started;
+        boolean ok = response.statusCode() / 100 == 2;
+        LoadReport.recordCall(method + " " + template, elapsed, ok);
+        if (!ok) {
+            log.debug("{} {} -> {}", method, path, response.statusCode());
+            return null;
+        }
+        return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+    }
+
+    // Distinct bytes per visitor so every walk-in stores a new photo
+    private String photo(long n) {
+        byte[] bytes = photo.clone();
+        for (int i = 0; i < Long.BYTES && i < bytes.length; i++) {
+            bytes[i] = (byte) (n >>> (8 * i));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private void think(ThreadLocalRandom random) throws InterruptedException {
+        if (settings.thinkMillis() > 0) {
+            Thread.sleep(random.nextLong(settings.thinkMillis() * 2));
+        }
+    }
+
+    private static <T> T pick(List<T> items, ThreadLocalRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private void print(List<Map<String, Object>> rows, double seconds) {
+        StringBuilder out = new StringBuilder(String.format("%nMeasured %.1f s with %d virtual users%n",
+                seconds, settings.users()));
+        out.append(String.format("%-52s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "sql/req"));
+        for (Map<String, Object> row : rows) {
+            Object queries = row.get("queriesPerRequest");
+            out.append(String.format("%-52s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9s%n", row.get("endpoint"),
+                    row.get("requests"), row.get("errors"), row.get("throughput"), row.get("p50Ms"),
+                    row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"), queries != null ? queries : "-"));
+        }
+        log.info(out.toString());
+    }
+
+    private void write(List<Map<String, Object>> rows, double seconds) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("measuredSeconds", Math.round(seconds * 10) / 10.0);
+        result.put("endpoints", rows);
+        Path file = Paths.get(settings.resultFile());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+        log.info("Results written to {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Run settings, read from {@code -Dloadtest.*} system properties.
+     */
+    record Settings(int users, int durationSeconds, int warmupSeconds, int rampSeconds, int tenants,
+            int adminsPerTenant, int guards, long thinkMillis, long pushLatencyMs, int photoKb,
+            String resultFile) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.users", 200),
+                    Integer.getInteger("loadtest.duration-seconds", 120),
+                    Integer.getInteger("loadtest.warmup-seconds", 20),
+                    Integer.getInteger("loadtest.ramp-seconds", 10),
+                    Integer.getInteger("loadtest.tenants", 50),
+                    Integer.getInteger("loadtest.admins-per-tenant", 2),
+                    Integer.getInteger("loadtest.guards", 20),
+                    Long.getLong("loadtest.think-ms", 100),
+                    Long.getLong("loadtest.push-latency-ms", 50), // roughly an FCM round trip
+                    Integer.getInteger("loadtest.photo-kb", 60),
+                    System.getProperty("loadtest.result", "target/loadtest-result.json"));
+        }
+    }
+
+    private record Seed(List<SeededTenant> tenants, List<Account> guards, Account superAdmin) {
+    }
+
+    private record SeededTenant(Long id, String name, List<Account> admins) {
+    }
+
+    // The token is filled in after seeding, by logging in over HTTP
+    private static final class Account {
+        private final Integer id;
+        private final String email;
+        private volatile String token;
+
+        Account(Integer id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+
+        Integer id() {
+            return id;
+        }
+
+        String email() {
+            return email;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.smartsecurity.system.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint results of a run. Client-side latencies and errors come from
+ * the virtual users; SQL statement counts come from the server-side filter.
+ * Both sides key endpoints as {@code "METHOD /path/{pattern}"}.
+ */
+final class LoadReport {
+
+    private static final ConcurrentMap<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+    private static volatile boolean recording;
+
+    private LoadReport() {
+    }
+
+    static void start() {
+        ENDPOINTS.clear();
+        recording = true;
+    }
+
+    static void stop() {
+        recording = false;
+    }
+
+    static void recordCall(String endpoint, long nanos, boolean ok) {
+        if (recording) {
+            ENDPOINTS.computeIfAbsent(endpoint, key -> new Endpoint()).recordCall(nanos, ok);
+        }
+    }
+
+    static void recordQueries(String endpoint, int statements) {
+        if (recording) {
+            Endpoint stats = ENDPOINTS.computeIfAbsent(endpoint, key -> new Endpoint());
+            stats.served.increment();
+            stats.statements.add(statements);
+        }
+    }
+
+    /** One row per endpoint, sorted by name, plus a combined "ALL" row. */
+    static List<Map<String, Object>> summarize(double seconds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Endpoint all = new Endpoint();
+        ENDPOINTS.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Endpoint stats = entry.getValue();
+                    if (stats.latencies.size() > 0) {
+                        rows.add(stats.summarize(entry.getKey(), seconds));
+                    }
+                    all.merge(stats);
+                });
+        rows.add(all.summarize("ALL", seconds));
+        return rows;
+    }
+
+    private static final class Endpoint {
+        private final LongList latencies = new LongList();
+        private final AtomicLong errors = new AtomicLong();
+        private final LongAdder served = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        void recordCall(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void merge(Endpoint other) {
+            latencies.addAll(other.latencies.toArray());
+            errors.addAndGet(other.errors.get());
+            served.add(other.served.sum());
+            statements.add(other.statements.sum());
+        }
+
+        Map<String, Object> summarize(String name, double seconds) {
+            long[] sorted = latencies.toArray();
+            Arrays.sort(sorted);
+            long servedCount = served.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", name);
+            row.put("requests", sorted.length);
+            row.put("errors", errors.get());
+            row.put("throughput", round(sorted.length / seconds));
+            row.put("p50Ms", millis(percentile(sorted, 50)));
+            row.put("p95Ms", millis(percentile(sorted, 95)));
+            row.put("p99Ms", millis(percentile(sorted, 99)));
+            row.put("maxMs", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+            row.put("queriesPerRequest", servedCount > 0 ? round((double) statements.sum() / servedCount) : null);
+            return row;
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // Growable primitive array: a run records millions of samples
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized void addAll(long[] more) {
+            if (size + more.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + more.length));
+            }
+            System.arraycopy(more, 0, values, size, more.length);
+            size += more.length;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.smartsecurity.system.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Extra beans the harness adds to the application: a filter ahead of Spring
+ * Security that attributes every statement Hibernate prepares while serving
+ * a request, authentication lookups included, to its endpoint.
+ */
+@Configuration
+class LoadTestSupport {
+
+    @Bean
+    FilterRegistrationBean<OncePerRequestFilter> queryCountingFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(
+                new OncePerRequestFilter() {
+                    @Override
+                    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                            FilterChain chain) throws ServletException, IOException {
+                        QueryCounter.begin();
+                        try {
+                            chain.doFilter(request, response);
+                        } finally {
+                            int statements = QueryCounter.end();
+                            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                            LoadReport.recordQueries(request.getMethod() + " "
+                                    + (pattern != null ? pattern : request.getRequestURI()), statements);
+                        }
+                    }
+                });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartsecurity.system.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #begin()} and {@link #end()}. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, so Hibernate creates
+ * it reflectively and the count has to live in a static.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
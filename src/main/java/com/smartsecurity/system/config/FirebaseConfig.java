@@ -1,5 +1,6 @@
 package com.smartsecurity.system.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 
 import org.springframework.core.io.ClassPathResource;
@@ -13,7 +14,7 @@ import java.io.InputStream;
 import javax.annotation.PostConstruct;
 
 @Configuration
-
+@ConditionalOnProperty(name = "notification.sender", havingValue = "firebase", matchIfMissing = true)
 public class FirebaseConfig {
     @PostConstruct
     public void init() throws Exception {
@@ -0,0 +1,40 @@
+package com.smartsecurity.system.config;
+
+import com.smartsecurity.system.security.JwtAuthenticationFilter;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Micrometer wiring that auto-configuration does not cover: {@code @Timed}
+ * support for the service transitions and a tenant tag on
+ * {@code http.server.requests}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String NO_TENANT = "none";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public ServerRequestObservationConvention tenantTaggedRequestConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                // Read from the request: the security context is already cleared when the observation stops
+                Object tenantId = context.getCarrier().getAttribute(JwtAuthenticationFilter.TENANT_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context)
+                        .and("tenant", tenantId != null ? tenantId.toString() : NO_TENANT);
+            }
+        };
+    }
+}
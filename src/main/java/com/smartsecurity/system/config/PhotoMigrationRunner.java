@@ -0,0 +1,79 @@
+package com.smartsecurity.system.config;
+
+import com.smartsecurity.system.service.PhotoStorageService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves base64 photos left in the legacy {@code image_url} columns into the
+ * photo store and replaces them with the content hash. Runs in small batches
+ * on every start and is a no-op once only external URLs are left, which stay
+ * in {@code image_url} and are served from there. Values that are neither are
+ * logged and left where they are.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PhotoMigrationRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStorageService photoStorageService;
+
+    @Override
+    public void run(String... args) {
+        migrate("visitors");
+        migrate("visitor_history");
+    }
+
+    private void migrate(String table) {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = ? AND column_name = 'image_url'",
+                Integer.class, table);
+        if (columns == null || columns == 0) {
+            return;
+        }
+
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, image_url FROM " + table
+                            + " WHERE image_url IS NOT NULL AND image_url !~* '^\\s*https?://'"
+                            + " AND id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                String imageUrl = (String) row.get("image_url");
+                if (PhotoStorageService.isExternalUrl(imageUrl)) {
+                    continue;
+                }
+                try {
+                    String hash = photoStorageService.storeBase64(imageUrl);
+                    jdbcTemplate.update(
+                            "UPDATE " + table + " SET photo_hash = ?, image_url = NULL WHERE id = ?",
+                            hash, lastId);
+                    migrated++;
+                } catch (RuntimeException e) {
+                    log.warn("Leaving {} row {} in image_url: {}", table, lastId, e.getMessage());
+                }
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} photo(s) from {}.image_url into the photo store", migrated, table);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartsecurity.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers: the default one for short periodic work (SSE heartbeats,
+ * counter flushes) and {@link #BATCH_SCHEDULER} for the nightly jobs that
+ * stream whole days or months, so those never hold up a heartbeat.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String BATCH_SCHEDULER = "batchScheduler";
+
+    // Named taskScheduler so @Scheduled without a scheduler attribute still lands here
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchScheduler(@Value("${scheduling.batch.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("batch-");
+        return scheduler;
+    }
+}
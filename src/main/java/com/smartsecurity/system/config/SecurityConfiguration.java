@@ -1,7 +1,9 @@
 package com.smartsecurity.system.config;
 
 import com.smartsecurity.system.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -32,11 +34,19 @@ public class SecurityConfiguration {
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .cors(Customizer.withDefaults())
                                 .authorizeHttpRequests(auth -> auth
+                                                // SSE streams are authorised on the initial request
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 .requestMatchers("/api/v1/auth/**").permitAll()
+                                                // Actuator only listens on the management port
+                                                .requestMatchers(EndpointRequest.to("health", "prometheus"))
+                                                .permitAll()
+                                                .requestMatchers(EndpointRequest.toAnyEndpoint())
+                                                .hasRole("SUPER_ADMIN")
                                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**",
                                                                 "/swagger-ui.html")
                                                 .permitAll()
                                                 .requestMatchers("/api/v1/common/**").authenticated()
+                                                .requestMatchers("/api/v1/photos/**").authenticated()
                                                 .requestMatchers("/api/v1/super-admin/**").hasRole("SUPER_ADMIN")
                                                 .requestMatchers("/api/v1/tenant-admin/**").hasRole("TENANT_ADMIN")
                                                 .requestMatchers("/api/v1/security/**").authenticated())
@@ -3,6 +3,7 @@ package com.smartsecurity.system.controller;
 import com.smartsecurity.system.dto.AuthRequest;
 import com.smartsecurity.system.dto.AuthResponse;
 
+import com.smartsecurity.system.dto.RefreshTokenRequest;
 import com.smartsecurity.system.dto.SaveFcmTokenRequest;
 import com.smartsecurity.system.service.AuthService;
 
@@ -19,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
@@ -45,6 +47,24 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Refresh session", description = "Exchange a refresh token for a new access token and a rotated refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens refreshed"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired or reused")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @Operation(summary = "Logout", description = "Revoke the refresh token's session, or every session of the caller with all=true")
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@Valid @RequestBody RefreshTokenRequest request,
+            @RequestParam(defaultValue = "false") boolean all) {
+        authService.logout(request.getRefreshToken(), all);
+        return ResponseEntity.ok("Logged out");
+    }
+
     @PostMapping("/save-fcm-token")
     public ResponseEntity<String> saveFcmToken(
             HttpServletRequest request,
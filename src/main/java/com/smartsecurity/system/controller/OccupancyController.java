@@ -0,0 +1,43 @@
+package com.smartsecurity.system.controller;
+
+import com.smartsecurity.system.dto.Occupant;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.service.OccupancyIndex;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/security/occupancy")
+@RequiredArgsConstructor
+public class OccupancyController {
+
+    private final OccupancyIndex occupancyIndex;
+
+    @GetMapping
+    public ResponseEntity<Map<OccupantType, Long>> getCounts(@RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(occupancyIndex.counts(tenantId));
+    }
+
+    @GetMapping("/visitors")
+    public ResponseEntity<List<Occupant>> getVisitorsInside(@RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(occupancyIndex.inside(tenantId, OccupantType.VISITOR));
+    }
+
+    @GetMapping("/vehicles")
+    public ResponseEntity<List<Occupant>> getVehiclesInside(@RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(occupancyIndex.inside(tenantId, OccupantType.VEHICLE));
+    }
+
+    @GetMapping("/staff")
+    public ResponseEntity<List<Occupant>> getStaffInside() {
+        return ResponseEntity.ok(occupancyIndex.inside(OccupancyIndex.NO_TENANT, OccupantType.STAFF));
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartsecurity.system.controller;
+
+import com.smartsecurity.system.exception.ResourceNotFoundException;
+import com.smartsecurity.system.service.PhotoStorageService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/v1/photos")
+@RequiredArgsConstructor
+public class PhotoController {
+
+    private final PhotoStorageService photoStorageService;
+
+    // Photos are addressed by content hash and never change, so clients may
+    // cache them indefinitely. Returning a Resource lets Spring stream the file
+    // and answer Range / If-None-Match requests without buffering it.
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getPhoto(@PathVariable String hash) {
+        Path path = photoStorageService.resolve(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Photo not found"));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate())
+                .eTag(hash)
+                .contentType(photoStorageService.contentType(path))
+                .body(new FileSystemResource(path));
+    }
+}
@@ -3,11 +3,12 @@ package com.smartsecurity.system.controller;
 import com.smartsecurity.system.dto.TenantResponse;
 import com.smartsecurity.system.dto.VehicleRequest;
 import com.smartsecurity.system.dto.VisitorRequest;
+import com.smartsecurity.system.dto.VisitorSummary;
 import com.smartsecurity.system.entity.Vehicle;
 import com.smartsecurity.system.enums.UserType;
-import com.smartsecurity.system.repository.UserRepository;
 import com.smartsecurity.system.security.JwtAuthenticationFilter;
 import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.service.GateEventStream;
 import com.smartsecurity.system.service.TenantService;
 import com.smartsecurity.system.service.VehicleService;
 import com.smartsecurity.system.service.VisitorService;
@@ -21,8 +22,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,7 +44,18 @@ public class SecurityController {
     private final VisitorService visitorService;
     private final VehicleService vehicleService;
     private final TenantService tenantService;
-    private final UserRepository userRepository;
+    private final GateEventStream gateEventStream;
+
+    /**
+     * Live gate feed: visitor and vehicle transitions are pushed as they
+     * commit, replacing polling of the list endpoints.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long tenantId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return gateEventStream.subscribe(tenantId, lastEventId);
+    }
 
     @GetMapping("/tenants/all")
     public ResponseEntity<List<TenantResponse>> getAllTenants() {
@@ -49,26 +63,38 @@ public class SecurityController {
     }
 
     @GetMapping("/visitors/today")
-    public ResponseEntity<List<Visitor>> getTodayVisitors() {
-        return ResponseEntity.ok(visitorService.getVisitorsForDate(LocalDate.now()));
+    public ResponseEntity<Page<VisitorSummary>> getTodayVisitors(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(visitorService.getVisitorsForDate(LocalDate.now(), page, size, sort));
     }
 
     @GetMapping("/visitors/checked-in")
-    public ResponseEntity<List<Visitor>> getCheckedInVisitors() {
-        return ResponseEntity.ok(visitorService.getCheckedInVisitors());
+    public ResponseEntity<Page<VisitorSummary>> getCheckedInVisitors(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(visitorService.getCheckedInVisitors(page, size, sort));
     }
 
     @GetMapping("/visitors/checked-out")
-    public ResponseEntity<List<Visitor>> getCheckedOutVisitors() {
-        return ResponseEntity.ok(visitorService.getCheckedOutVisitors());
+    public ResponseEntity<Page<VisitorSummary>> getCheckedOutVisitors(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(visitorService.getCheckedOutVisitors(page, size, sort));
+    }
+
+    @GetMapping("/visitors/{id}")
+    public ResponseEntity<Visitor> getVisitor(@PathVariable Long id) {
+        return ResponseEntity.ok(visitorService.getVisitor(id));
     }
 
     @PostMapping("/visitors/walk-in")
     public ResponseEntity<Visitor> addWalkIn(HttpServletRequest httpRequest,
             @Valid @RequestBody VisitorRequest request) {
-        User user1 = JwtAuthenticationFilter.getCurrentUser();
-        User user = userRepository.findById(user1.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = JwtAuthenticationFilter.getCurrentUser();
         request.setCreatedByUserId(user.getId());
         return ResponseEntity.ok(visitorService.addWalkInVisitor(request));
     }
@@ -90,7 +116,8 @@ public class SecurityController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor) {
         LocalDateTime start = null;
         LocalDateTime end = null;
         try {
@@ -103,6 +130,9 @@ public class SecurityController {
         } catch (DateTimeParseException e) {
             return ResponseEntity.badRequest().body("Invalid date format. Use YYYY-MM-DD");
         }
+        if (cursor != null) {
+            return ResponseEntity.ok(visitorService.getVisitorHistoryByCursor(visitorId, cursor, size, start, end));
+        }
         Page<VisitorHistory> historyPage = visitorService.getVisitorHistory(visitorId, page, size, start, end);
         if (historyPage.isEmpty()) {
             Map<String, String> response = new HashMap<>();
@@ -166,7 +196,8 @@ public class SecurityController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor) {
 
         LocalDateTime start = null;
         LocalDateTime end = null;
@@ -182,6 +213,10 @@ public class SecurityController {
             return ResponseEntity.badRequest().body("Invalid date format. Use YYYY-MM-DD");
         }
 
+        if (cursor != null) {
+            return ResponseEntity.ok(vehicleService.getVehicleHistoryByCursor(vehicleId, cursor, size, start, end));
+        }
+
         Page<VehicleHistory> historyPage = vehicleService.getVehicleHistory(vehicleId, page, size, start, end);
 
         if (historyPage.isEmpty()) {
@@ -1,5 +1,7 @@
 package com.smartsecurity.system.controller;
 
+import com.smartsecurity.system.dto.CacheStats;
+import com.smartsecurity.system.dto.NotificationStats;
 import com.smartsecurity.system.dto.StaffRequest;
 import com.smartsecurity.system.dto.TenantAdminRequest;
 import com.smartsecurity.system.dto.TenantRequest;
@@ -12,7 +14,17 @@ import com.smartsecurity.system.entity.User;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.smartsecurity.system.entity.VehicleHistory;
 import com.smartsecurity.system.entity.VisitorHistory;
-
+import com.smartsecurity.system.enums.ExportFormat;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.exception.ResourceNotFoundException;
+
+import com.smartsecurity.system.security.PrincipalCache;
+import com.smartsecurity.system.service.DailyRollups;
+import com.smartsecurity.system.service.HistoryArchive;
+import com.smartsecurity.system.service.HistoryPartitions;
+import com.smartsecurity.system.service.NotificationDispatcher;
+import com.smartsecurity.system.service.ReportCache;
+import com.smartsecurity.system.service.ReportExporter;
 import com.smartsecurity.system.service.ReportService;
 import com.smartsecurity.system.service.TenantService;
 
@@ -21,9 +33,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
@@ -39,6 +55,47 @@ public class SuperAdminController {
 
     private final TenantService tenantService;
     private final ReportService reportService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final PrincipalCache principalCache;
+    private final DailyRollups dailyRollups;
+    private final ReportCache reportCache;
+    private final ReportExporter reportExporter;
+    private final HistoryArchive historyArchive;
+    private final HistoryPartitions historyPartitions;
+
+    @GetMapping("/monitoring/notifications")
+    public ResponseEntity<NotificationStats> getNotificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+
+    @GetMapping("/monitoring/principal-cache")
+    public ResponseEntity<CacheStats> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    @GetMapping("/monitoring/report-cache")
+    public ResponseEntity<CacheStats> getReportCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
+
+    @GetMapping("/monitoring/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveSummary() {
+        return ResponseEntity.ok(historyArchive.getSummary());
+    }
+
+    @PostMapping("/monitoring/archive/run")
+    public ResponseEntity<Map<String, Object>> runArchive(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("files", historyArchive.archiveRange(from, to));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/monitoring/partitions")
+    public ResponseEntity<Map<String, List<String>>> getHistoryPartitions() {
+        return ResponseEntity.ok(historyPartitions.getPartitions());
+    }
 
     @GetMapping("/tenants")
     public ResponseEntity<List<TenantResponse>> getAllTenants() {
@@ -96,42 +153,176 @@ public class SuperAdminController {
     }
 
     @GetMapping("/dashboard/visitors")
-    public ResponseEntity<Map<String, Object>> visitorsChart() {
-        return ResponseEntity.ok(reportService.getVisitorCharts());
+    public ResponseEntity<Map<String, Object>> visitorsChart(@RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(reportService.getVisitorCharts(tenantId));
     }
 
     @GetMapping("/dashboard/vehicles")
-    public ResponseEntity<Map<String, Object>> vehiclesChart() {
-        return ResponseEntity.ok(reportService.getVehicleCharts());
+    public ResponseEntity<Map<String, Object>> vehiclesChart(@RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(reportService.getVehicleCharts(tenantId));
+    }
+
+    // Custom ranges (up to a year) for either chart: subject is "visitors" or "vehicles"
+    @GetMapping("/dashboard/{subject}/daily")
+    public ResponseEntity<List<Map<String, Object>>> dailyChart(
+            @PathVariable String subject,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(reportService.getDailyChart(chartSubject(subject), from, to, tenantId));
+    }
+
+    @GetMapping("/dashboard/{subject}/by-tenant")
+    public ResponseEntity<List<Map<String, Object>>> tenantBreakdown(
+            @PathVariable String subject,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getTenantBreakdown(chartSubject(subject), from, to));
+    }
+
+    @PostMapping("/monitoring/rollups/rebuild")
+    public ResponseEntity<Map<String, String>> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        dailyRollups.rebuild(from, to);
+        reportCache.invalidateAll();
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Rollups rebuilt for " + from + " to " + to);
+        return ResponseEntity.ok(response);
+    }
+
+    private static OccupantType chartSubject(String subject) {
+        return switch (subject) {
+            case "visitors" -> OccupantType.VISITOR;
+            case "vehicles" -> OccupantType.VEHICLE;
+            default -> throw new ResourceNotFoundException("Unknown chart: " + subject);
+        };
     }
 
+    // Passing a cursor (blank for the first page) switches to keyset paging,
+    // which skips the count query and returns nextCursor instead of page numbers.
     @GetMapping("/reports/visitors")
-    public ResponseEntity<Page<VisitorHistory>> getVisitorReport(@AuthenticationPrincipal User user,
+    public ResponseEntity<?> getVisitorReport(@AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) Long tenantId, @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(reportService.getVisitorReportByCursor(startDate, endDate, tenantId, cursor, size));
+        }
         return ResponseEntity.ok(reportService.getVisitorReport(startDate, endDate, tenantId, page, size));
     }
 
+    @GetMapping("/reports/visitors/{id}")
+    public ResponseEntity<VisitorHistory> getVisitorReportEntry(@PathVariable Long id) {
+        return ResponseEntity.ok(reportService.getVisitorHistoryEntry(id));
+    }
+
     @GetMapping("/reports/vehicles")
-    public ResponseEntity<Page<VehicleHistory>> getVehicleReport(@AuthenticationPrincipal User user,
+    public ResponseEntity<?> getVehicleReport(@AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) Long tenantId, @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(reportService.getVehicleReportByCursor(startDate, endDate, tenantId, cursor, size));
+        }
         return ResponseEntity.ok(reportService.getVehicleReport(startDate, endDate, tenantId, page, size));
     }
 
     @GetMapping("/reports/staff")
-    public ResponseEntity<Page<StaffHistory>> getStaffReport(@AuthenticationPrincipal User user,
+    public ResponseEntity<?> getStaffReport(@AuthenticationPrincipal User user,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(reportService.getStaffReportByCursor(startDate, endDate, cursor, size));
+        }
         return ResponseEntity.ok(reportService.getStaffReport(startDate, endDate, page, size));
     }
 
+    // Aggregates over archived history (table: visitors, vehicles or staff)
+    @GetMapping("/reports/archive/{table}/daily")
+    public ResponseEntity<Map<String, Object>> archivedDailyCounts(
+            @PathVariable String table,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long tenantId) {
+        return ResponseEntity.ok(reportService.getArchivedDailyCounts(
+                HistoryArchive.Table.fromPath(table), from, to, tenantId));
+    }
+
+    @GetMapping("/reports/archive/{table}/breakdown")
+    public ResponseEntity<Map<String, Long>> archivedBreakdown(
+            @PathVariable String table,
+            @RequestParam(defaultValue = "status") String by,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getArchivedBreakdown(
+                HistoryArchive.Table.fromPath(table), by, from, to));
+    }
+
+    // Full-range exports (format=csv|ndjson), streamed and gzipped when the client accepts it
+    @GetMapping("/reports/visitors/export")
+    public ResponseEntity<StreamingResponseBody> exportVisitors(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long tenantId) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return export("visitors", exportFormat, gzip,
+                reportExporter.exportVisitors(exportFormat, gzip, startDate, endDate, tenantId));
+    }
+
+    @GetMapping("/reports/vehicles/export")
+    public ResponseEntity<StreamingResponseBody> exportVehicles(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long tenantId) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return export("vehicles", exportFormat, gzip,
+                reportExporter.exportVehicles(exportFormat, gzip, startDate, endDate, tenantId));
+    }
+
+    @GetMapping("/reports/staff/export")
+    public ResponseEntity<StreamingResponseBody> exportStaff(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return export("staff", exportFormat, gzip,
+                reportExporter.exportStaff(exportFormat, gzip, startDate, endDate));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, boolean gzip,
+            StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "-" + LocalDate.now() + "." + format.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     // staff
 
     @GetMapping(value = "/getAllStaff")
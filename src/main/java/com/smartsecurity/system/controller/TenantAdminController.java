@@ -1,18 +1,26 @@
 package com.smartsecurity.system.controller;
 
 import com.smartsecurity.system.dto.ApprovalRequest;
+import com.smartsecurity.system.dto.Occupant;
 import com.smartsecurity.system.dto.VisitorRequest;
+import com.smartsecurity.system.dto.VisitorSummary;
 import com.smartsecurity.system.dto.VehicleRequest;
 import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.entity.Visitor;
 import com.smartsecurity.system.entity.Vehicle;
+import com.smartsecurity.system.enums.OccupantType;
 import com.smartsecurity.system.enums.UserType;
+import com.smartsecurity.system.service.ApprovalInbox;
+import com.smartsecurity.system.service.OccupancyIndex;
 import com.smartsecurity.system.service.VisitorService;
 import com.smartsecurity.system.service.VehicleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +33,8 @@ public class TenantAdminController {
 
     private final VisitorService visitorService;
     private final VehicleService vehicleService;
+    private final OccupancyIndex occupancyIndex;
+    private final ApprovalInbox approvalInbox;
 
     @PostMapping("/visitors/schedule")
     public ResponseEntity<Visitor> scheduleVisitor(@RequestBody VisitorRequest request,
@@ -41,8 +51,16 @@ public class TenantAdminController {
     }
 
     @GetMapping("/visitors")
-    public ResponseEntity<List<Visitor>> getAllVisitors(@AuthenticationPrincipal User admin) {
-        return ResponseEntity.ok(visitorService.getAllVisitorsForTenant(admin.getTenant().getId(), admin));
+    public ResponseEntity<Page<VisitorSummary>> getAllVisitors(@AuthenticationPrincipal User admin,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(visitorService.getAllVisitorsForTenant(admin.getTenant().getId(), page, size, sort));
+    }
+
+    @GetMapping("/visitors/{id}")
+    public ResponseEntity<Visitor> getVisitor(@PathVariable Long id, @AuthenticationPrincipal User admin) {
+        return ResponseEntity.ok(visitorService.getVisitorForTenant(id, admin.getTenant().getId()));
     }
 
     @GetMapping("/approvals/pending")
@@ -50,9 +68,33 @@ public class TenantAdminController {
         return ResponseEntity.ok(visitorService.getPendingApprovalsForTenant(admin));
     }
 
+    @GetMapping("/approvals/pending/count")
+    public ResponseEntity<Map<String, Long>> getPendingApprovalCount(@AuthenticationPrincipal User admin) {
+        return ResponseEntity.ok(Map.of("pendingCount", visitorService.countPendingApprovals(admin)));
+    }
+
+    @GetMapping(value = "/approvals/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamApprovals(@AuthenticationPrincipal User admin) {
+        return approvalInbox.subscribe(admin);
+    }
+
     @GetMapping("/visitors/today")
-    public ResponseEntity<List<Visitor>> getTodayVisitors(@AuthenticationPrincipal User admin) {
-        return ResponseEntity.ok(visitorService.getTodayVisitorsForTenant(admin.getTenant().getId()));
+    public ResponseEntity<Page<VisitorSummary>> getTodayVisitors(@AuthenticationPrincipal User admin,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        return ResponseEntity.ok(visitorService.getTodayVisitorsForTenant(admin.getTenant().getId(), page, size, sort));
+    }
+
+    @GetMapping("/occupancy")
+    public ResponseEntity<Map<OccupantType, Long>> getOccupancy(@AuthenticationPrincipal User admin) {
+        return ResponseEntity.ok(occupancyIndex.counts(admin.getTenant().getId()));
+    }
+
+    @GetMapping("/occupancy/inside")
+    public ResponseEntity<List<Occupant>> getInside(@AuthenticationPrincipal User admin,
+            @RequestParam(required = false) OccupantType type) {
+        return ResponseEntity.ok(occupancyIndex.inside(admin.getTenant().getId(), type));
     }
 
     @DeleteMapping("/visitors/{id}")
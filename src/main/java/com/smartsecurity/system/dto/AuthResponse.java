@@ -12,6 +12,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private Long expiresIn;
     private Role role;
     private String fullName;
 }
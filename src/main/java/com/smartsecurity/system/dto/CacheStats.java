@@ -0,0 +1,30 @@
+package com.smartsecurity.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStats {
+    private String name;
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+
+    public static CacheStats of(String name, long size, com.github.benmanes.caffeine.cache.stats.CacheStats stats) {
+        return CacheStats.builder()
+                .name(name)
+                .size(size)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+}
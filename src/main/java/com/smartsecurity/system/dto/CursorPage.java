@@ -0,0 +1,38 @@
+package com.smartsecurity.system.dto;
+
+import com.smartsecurity.system.util.KeysetCursor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra
+     * row only signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return CursorPage.<T>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.smartsecurity.system.dto;
+
+import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.enums.UserStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationRecipient {
+    private Integer id;
+    private Role role;
+    private Long tenantId;
+    private String fullName;
+    private String fcmToken;
+    private UserStatus status;
+}
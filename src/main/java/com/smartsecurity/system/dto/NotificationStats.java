@@ -0,0 +1,25 @@
+package com.smartsecurity.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationStats {
+    private String sender;
+    private int queueDepth;
+    private int queueCapacity;
+    private int pendingRetries;
+    private long enqueued;
+    private long rejected;
+    private long sent;
+    private long retried;
+    private long deadLettered;
+    private long batches;
+    private double averageLatencyMillis;
+    private long maxLatencyMillis;
+}
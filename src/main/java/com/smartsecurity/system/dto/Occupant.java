@@ -0,0 +1,21 @@
+package com.smartsecurity.system.dto;
+
+import com.smartsecurity.system.enums.OccupantType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Occupant {
+    private OccupantType type;
+    private Long id;
+    private Long tenantId;
+    private String label;
+    private LocalDateTime since;
+}
@@ -0,0 +1,16 @@
+package com.smartsecurity.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PushMessage {
+    private String token;
+    private String title;
+    private String body;
+}
@@ -0,0 +1,33 @@
+package com.smartsecurity.system.dto;
+
+import com.smartsecurity.system.enums.VisitStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitorHistorySummary {
+    private Long id;
+    private Long visitorId;
+    private String visitorName;
+    private String mobileNumber;
+    private String visitType;
+    private VisitStatus status;
+    private LocalDate visitDate;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private String rejectionRemarks;
+    private Long tenantId;
+    private String companyName;
+    private Integer createdBy;
+    private Integer approvedBy;
+    private String photoHash;
+    private String imageUrl;
+}
@@ -26,7 +26,7 @@ public class VisitorRequest {
 
     private String visitType;
     private String idProof;
-    private String imageUrl; // Base64 encoded image or URL
+    private String imageUrl; // Base64 image or data URI (stored via PhotoStorageService), or an http(s) URL kept as-is
     private LocalDate visitDate;
   
 
@@ -0,0 +1,37 @@
+package com.smartsecurity.system.dto;
+
+import com.smartsecurity.system.enums.VisitStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * List row for visitor screens. Selected column by column so the photo and the
+ * tenant/admin graph are never loaded; the photo is fetched separately from
+ * {@code /api/v1/photos/{photoHash}} when present, or from {@code imageUrl}
+ * for photos hosted elsewhere.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitorSummary {
+    private Long id;
+    private String visitorName;
+    private String mobileNumber;
+    private String visitType;
+    private LocalDate visitDate;
+    private VisitStatus status;
+    private Long tenantId;
+    private String companyName;
+    private Integer createdBy;
+    private Integer approvedBy;
+    private LocalDateTime checkInTime;
+    private LocalDateTime checkOutTime;
+    private String photoHash;
+    private String imageUrl;
+}
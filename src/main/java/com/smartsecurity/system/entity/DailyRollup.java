@@ -0,0 +1,47 @@
+package com.smartsecurity.system.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of visitors (by visit date) or vehicle check-ins (by check-in date)
+ * per day, tenant and status. Rows without a tenant use tenant id 0 so the
+ * unique key can drive {@code ON CONFLICT} upserts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_rollups_key", columnNames = { "rollup_day", "subject", "tenant_id", "status" })
+})
+public class DailyRollup {
+
+    public static final long NO_TENANT = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    // OccupantType name: VISITOR or VEHICLE
+    @Column(name = "subject", nullable = false, length = 16)
+    private String subject;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+}
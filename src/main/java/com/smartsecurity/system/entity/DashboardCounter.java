@@ -0,0 +1,31 @@
+package com.smartsecurity.system.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last flushed value of an in-memory dashboard counter, used to seed the
+ * counters on startup before the first reconcile.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "dashboard_counters")
+public class DashboardCounter {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long value;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.smartsecurity.system.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A push notification that could not be delivered after all retries, kept for
+ * inspection and manual replay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_dead_letters")
+public class NotificationDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token", length = 512)
+    private String token;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "body", length = 1000)
+    private String body;
+
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+}
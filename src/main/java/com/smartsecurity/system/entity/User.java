@@ -52,6 +52,11 @@ public class User implements UserDetails {
     @Column(name = "fcm_token")
     private String fcmToken;
 
+    // Bumped whenever status, credentials or scope change; claims tokens carry it as "sv"
+    @Column(name = "token_version")
+    @JsonIgnore
+    private Integer tokenVersion;
+
     @ManyToOne
     @JoinColumn(name = "tenant_id")
     @JsonBackReference("tenant-admins")
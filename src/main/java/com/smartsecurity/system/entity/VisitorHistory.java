@@ -37,7 +37,12 @@ public class VisitorHistory {
 
     private String rejectionRemarks;
 
-    @Column(columnDefinition = "TEXT")
+    // SHA-256 key into PhotoStorageService; the image itself lives on disk
+    @Column(name = "photo_hash", length = 64)
+    private String photoHash;
+
+    // Link to a photo hosted elsewhere; set instead of photoHash, never both
+    @Column(name = "image_url", columnDefinition = "TEXT")
     private String imageUrl;
 
     private String idProof;
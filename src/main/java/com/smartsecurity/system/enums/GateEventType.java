@@ -0,0 +1,32 @@
+package com.smartsecurity.system.enums;
+
+public enum GateEventType {
+    VISITOR_CREATED(OccupantType.VISITOR),
+    VISITOR_UPDATED(OccupantType.VISITOR),
+    VISITOR_APPROVED(OccupantType.VISITOR),
+    VISITOR_REJECTED(OccupantType.VISITOR),
+    VISITOR_CHECKED_IN(OccupantType.VISITOR),
+    VISITOR_CHECKED_OUT(OccupantType.VISITOR),
+    VISITOR_DELETED(OccupantType.VISITOR),
+    VEHICLE_ENTRY_REQUESTED(OccupantType.VEHICLE),
+    VEHICLE_CHECKED_IN(OccupantType.VEHICLE),
+    VEHICLE_CHECKED_OUT(OccupantType.VEHICLE),
+    VEHICLE_UPDATED(OccupantType.VEHICLE),
+    VEHICLE_DELETED(OccupantType.VEHICLE),
+    STAFF_CHECKED_IN(OccupantType.STAFF),
+    STAFF_CHECKED_OUT(OccupantType.STAFF),
+    STAFF_DELETED(OccupantType.STAFF),
+    // Directory changes, nobody enters or leaves
+    TENANT_CREATED(null),
+    TENANT_DELETED(null);
+
+    private final OccupantType subject;
+
+    GateEventType(OccupantType subject) {
+        this.subject = subject;
+    }
+
+    public OccupantType getSubject() {
+        return subject;
+    }
+}
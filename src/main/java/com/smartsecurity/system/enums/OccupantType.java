@@ -0,0 +1,7 @@
+package com.smartsecurity.system.enums;
+
+public enum OccupantType {
+    VISITOR,
+    VEHICLE,
+    STAFF
+}
@@ -0,0 +1,91 @@
+package com.smartsecurity.system.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smartsecurity.system.entity.Staff;
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.Vehicle;
+import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.enums.GateEventType;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A state change at the gate, published by the services and consumed after
+ * the surrounding transaction commits. Carries a flat snapshot so listeners
+ * never touch the entity or the database.
+ */
+@Value
+@Builder
+public class GateEvent {
+    GateEventType type;
+    Long subjectId;
+    Long tenantId;
+    String label;
+    String status;
+    String previousStatus;
+    // Set when the subject moved to another tenant, so the old tenant's views can drop it
+    @With
+    Long previousTenantId;
+    // Visit date for visitors, check-in date for vehicles
+    LocalDate visitDate;
+    LocalDateTime occurredAt;
+    // Admins who must act on a pending visitor; only set where the inbox cares.
+    // Routing data only, never sent to consoles or admins
+    @With
+    @JsonIgnore
+    Set<Integer> assignedAdminIds;
+
+    public static GateEvent of(GateEventType type, Visitor visitor, Enum<?> previousStatus) {
+        return GateEvent.builder()
+                .type(type)
+                .subjectId(visitor.getId())
+                .tenantId(visitor.getTenant() != null ? visitor.getTenant().getId() : null)
+                .label(visitor.getVisitorName())
+                .status(visitor.getStatus() != null ? visitor.getStatus().name() : null)
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .visitDate(visitor.getVisitDate())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static GateEvent of(GateEventType type, Vehicle vehicle, Enum<?> previousStatus) {
+        return GateEvent.builder()
+                .type(type)
+                .subjectId(vehicle.getId())
+                .tenantId(vehicle.getTenant() != null ? vehicle.getTenant().getId() : null)
+                .label(vehicle.getVehicleNumber())
+                .status(vehicle.getStatus() != null ? vehicle.getStatus().name() : null)
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .visitDate(vehicle.getCheckInTime() != null ? vehicle.getCheckInTime().toLocalDate() : null)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static GateEvent of(GateEventType type, Tenant tenant) {
+        return GateEvent.builder()
+                .type(type)
+                .subjectId(tenant.getId())
+                .tenantId(tenant.getId())
+                .label(tenant.getCompanyName())
+                .status(tenant.getStatus() != null ? tenant.getStatus().name() : null)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static GateEvent of(GateEventType type, Staff staff, Enum<?> previousStatus) {
+        return GateEvent.builder()
+                .type(type)
+                .subjectId(staff.getId())
+                .label(staff.getName())
+                .status(staff.getStatus() != null ? staff.getStatus().name() : null)
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
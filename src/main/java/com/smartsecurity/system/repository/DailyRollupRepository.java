@@ -0,0 +1,91 @@
+package com.smartsecurity.system.repository;
+
+import com.smartsecurity.system.entity.DailyRollup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO daily_rollups (rollup_day, subject, tenant_id, status, total)
+                VALUES (:day, :subject, :tenantId, :status, :delta)
+                ON CONFLICT (rollup_day, subject, tenant_id, status)
+                DO UPDATE SET total = daily_rollups.total + EXCLUDED.total
+            """, nativeQuery = true)
+    int addTo(@Param("day") LocalDate day,
+            @Param("subject") String subject,
+            @Param("tenantId") long tenantId,
+            @Param("status") String status,
+            @Param("delta") long delta);
+
+    /** Day and total, summed over statuses; a null tenant means every tenant. */
+    @Query("""
+                SELECT r.day, SUM(r.total)
+                FROM DailyRollup r
+                WHERE r.subject = :subject
+                  AND r.day BETWEEN :from AND :to
+                  AND (:tenantId IS NULL OR r.tenantId = :tenantId)
+                GROUP BY r.day
+            """)
+    List<Object[]> sumByDay(@Param("subject") String subject,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("tenantId") Long tenantId);
+
+    /** Tenant id, status and total over a date range. */
+    @Query("""
+                SELECT r.tenantId, r.status, SUM(r.total)
+                FROM DailyRollup r
+                WHERE r.subject = :subject
+                  AND r.day BETWEEN :from AND :to
+                GROUP BY r.tenantId, r.status
+            """)
+    List<Object[]> sumByTenantAndStatus(@Param("subject") String subject,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM DailyRollup r WHERE r.subject = :subject AND r.day BETWEEN :from AND :to")
+    int deleteRange(@Param("subject") String subject,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Rebuilds overwrite on conflict, so a row upserted by a concurrent event
+    // is replaced by the recount rather than added to it.
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO daily_rollups (rollup_day, subject, tenant_id, status, total)
+                SELECT v.visit_date, 'VISITOR', COALESCE(v.tenant_id, 0), COALESCE(v.status, 'UNKNOWN'), COUNT(*)
+                FROM visitors v
+                WHERE v.visit_date BETWEEN :from AND :to
+                GROUP BY v.visit_date, COALESCE(v.tenant_id, 0), COALESCE(v.status, 'UNKNOWN')
+                ON CONFLICT (rollup_day, subject, tenant_id, status)
+                DO UPDATE SET total = EXCLUDED.total
+            """, nativeQuery = true)
+    int rebuildVisitors(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO daily_rollups (rollup_day, subject, tenant_id, status, total)
+                SELECT CAST(h.check_in_time AS date), 'VEHICLE', COALESCE(h.tenant_id, 0),
+                       COALESCE(h.status, 'UNKNOWN'), COUNT(*)
+                FROM vehicle_history h
+                WHERE h.check_in_time >= :from AND h.check_in_time < :toExclusive
+                GROUP BY CAST(h.check_in_time AS date), COALESCE(h.tenant_id, 0), COALESCE(h.status, 'UNKNOWN')
+                ON CONFLICT (rollup_day, subject, tenant_id, status)
+                DO UPDATE SET total = EXCLUDED.total
+            """, nativeQuery = true)
+    int rebuildVehicles(@Param("from") LocalDateTime from,
+            @Param("toExclusive") LocalDateTime toExclusive);
+}
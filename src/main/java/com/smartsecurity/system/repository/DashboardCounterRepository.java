@@ -0,0 +1,9 @@
+package com.smartsecurity.system.repository;
+
+import com.smartsecurity.system.entity.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, String> {
+}
@@ -0,0 +1,9 @@
+package com.smartsecurity.system.repository;
+
+import com.smartsecurity.system.entity.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+}
@@ -2,6 +2,7 @@ package com.smartsecurity.system.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,7 +13,12 @@ import org.springframework.data.domain.Page;
 
 import java.time.LocalDateTime;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface StaffHistoryRepository extends JpaRepository<StaffHistory, Integer> {
@@ -28,4 +34,31 @@ public interface StaffHistoryRepository extends JpaRepository<StaffHistory, Inte
             @Param("end") LocalDateTime end,
             Pageable pageable);
 
+    @Query("""
+                SELECT s FROM StaffHistory s
+                WHERE s.checkInTime BETWEEN :start AND :end
+                  AND (s.checkInTime < :cursorTime
+                       OR (s.checkInTime = :cursorTime AND s.id < :cursorId))
+                ORDER BY s.checkInTime DESC, s.id DESC
+            """)
+    List<StaffHistory> findByFiltersAfter(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
+
+    // Export: forward-only cursor, fetched in chunks; the caller must hold a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                SELECT s FROM StaffHistory s
+                WHERE s.checkInTime BETWEEN :start AND :end
+                ORDER BY s.checkInTime, s.id
+            """)
+    Stream<StaffHistory> streamByFilters(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
 }
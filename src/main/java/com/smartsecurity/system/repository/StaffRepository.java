@@ -1,6 +1,7 @@
 package com.smartsecurity.system.repository;
 
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,11 +10,14 @@ import org.springframework.stereotype.Repository;
 
 
 import com.smartsecurity.system.entity.Staff;
+import com.smartsecurity.system.enums.VisitStatus;
 
 
 @Repository
 public interface StaffRepository extends JpaRepository<Staff, Integer> {
 
     Optional<Staff> findByMobileNumber(String mobileNumber);
-    
+
+    List<Staff> findByStatus(VisitStatus status);
+
 }
@@ -2,11 +2,16 @@ package com.smartsecurity.system.repository;
 
 import com.smartsecurity.system.entity.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
     Optional<Tenant> findByCompanyName(String companyName);
+
+    @Query("SELECT DISTINCT t FROM Tenant t LEFT JOIN FETCH t.admins ORDER BY t.id")
+    List<Tenant> findAllWithAdmins();
 }
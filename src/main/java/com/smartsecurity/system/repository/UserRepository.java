@@ -1,8 +1,12 @@
 package com.smartsecurity.system.repository;
 
+import com.smartsecurity.system.dto.NotificationRecipient;
 import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +23,18 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     User findUserById(Integer userId);
 
     boolean existsByEmail(String email);
+
+    @Query("""
+            SELECT new com.smartsecurity.system.dto.NotificationRecipient(
+                u.id, u.role, t.id, u.fullName, u.fcmToken, u.status)
+            FROM User u LEFT JOIN u.tenant t
+            """)
+    List<NotificationRecipient> findAllRecipients();
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u")
+    List<Object[]> findAllTokenVersions();
+
+    @Modifying
+    @Query("UPDATE User u SET u.fcmToken = :fcmToken WHERE u.id = :id")
+    int updateFcmToken(@Param("id") Integer id, @Param("fcmToken") String fcmToken);
 }
@@ -3,6 +3,7 @@ package com.smartsecurity.system.repository;
 import com.smartsecurity.system.entity.VehicleHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
@@ -10,6 +11,10 @@ import org.springframework.data.domain.Page;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface VehicleHistoryRepository extends JpaRepository<VehicleHistory, Long> {
@@ -41,4 +46,53 @@ public interface VehicleHistoryRepository extends JpaRepository<VehicleHistory,
       @Param("end") LocalDateTime end,
       Pageable pageable);
 
+  @Query("""
+          SELECT v FROM VehicleHistory v
+          WHERE (:tenantId IS NULL OR v.tenant.id = :tenantId)
+            AND v.checkInTime BETWEEN :start AND :end
+            AND (v.checkInTime < :cursorTime
+                 OR (v.checkInTime = :cursorTime AND v.id < :cursorId))
+          ORDER BY v.checkInTime DESC, v.id DESC
+      """)
+  List<VehicleHistory> findByFiltersAfter(
+      @Param("tenantId") Long tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
+      @Param("cursorTime") LocalDateTime cursorTime,
+      @Param("cursorId") Long cursorId,
+      Pageable limit);
+
+  @Query("""
+          SELECT v FROM VehicleHistory v
+          WHERE (:vehicleId IS NULL OR v.vehicleId = :vehicleId)
+            AND v.checkInTime >= COALESCE(:start, v.checkInTime)
+            AND v.checkInTime <= COALESCE(:end, v.checkInTime)
+            AND (v.checkInTime < :cursorTime
+                 OR (v.checkInTime = :cursorTime AND v.id < :cursorId))
+          ORDER BY v.checkInTime DESC, v.id DESC
+      """)
+  List<VehicleHistory> findByVehicleIdWithFiltersAfter(
+      @Param("vehicleId") Long vehicleId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
+      @Param("cursorTime") LocalDateTime cursorTime,
+      @Param("cursorId") Long cursorId,
+      Pageable limit);
+
+  // Export: forward-only cursor, fetched in chunks; the caller must hold a transaction
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("""
+          SELECT v FROM VehicleHistory v
+          LEFT JOIN FETCH v.tenant
+          WHERE (:tenantId IS NULL OR v.tenant.id = :tenantId)
+            AND v.checkInTime BETWEEN :start AND :end
+          ORDER BY v.checkInTime, v.id
+      """)
+  Stream<VehicleHistory> streamByFilters(
+      @Param("tenantId") Long tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
 }
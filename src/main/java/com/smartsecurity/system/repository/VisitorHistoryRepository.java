@@ -1,10 +1,11 @@
 package com.smartsecurity.system.repository;
 
-import com.smartsecurity.system.entity.VehicleHistory;
+import com.smartsecurity.system.dto.VisitorHistorySummary;
 import com.smartsecurity.system.entity.VisitorHistory;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface VisitorHistoryRepository extends JpaRepository<VisitorHistory, Long> {
@@ -22,12 +27,25 @@ public interface VisitorHistoryRepository extends JpaRepository<VisitorHistory,
 
   Optional<VisitorHistory> findByVisitorIdAndCheckOutTimeIsNull(Long visitorId);
 
-  @Query("""
-          SELECT v FROM VisitorHistory v
+  String SUMMARY_SELECT = """
+          SELECT new com.smartsecurity.system.dto.VisitorHistorySummary(
+              v.id, v.visitorId, v.visitorName, v.mobileNumber, v.visitType, v.status,
+              v.visitDate, v.checkInTime, v.checkOutTime, v.rejectionRemarks,
+              t.id, t.companyName, v.createdBy, v.approvedBy,
+              v.photoHash, v.imageUrl)
+          FROM VisitorHistory v
+          LEFT JOIN v.tenant t
+      """;
+
+  @Query(value = SUMMARY_SELECT + """
+          WHERE (:tenantId IS NULL OR t.id = :tenantId)
+            AND v.visitDate BETWEEN :startDate AND :endDate
+      """, countQuery = """
+          SELECT COUNT(v) FROM VisitorHistory v
           WHERE (:tenantId IS NULL OR v.tenant.id = :tenantId)
             AND v.visitDate BETWEEN :startDate AND :endDate
       """)
-  Page<VisitorHistory> findByFilters(
+  Page<VisitorHistorySummary> findByFilters(
       @Param("tenantId") Long tenantId,
       @Param("startDate") LocalDate startDate,
       @Param("endDate") LocalDate endDate,
@@ -44,4 +62,51 @@ public interface VisitorHistoryRepository extends JpaRepository<VisitorHistory,
       @Param("start") LocalDateTime start,
       @Param("end") LocalDateTime end,
       Pageable pageable);
+
+  @Query("""
+          SELECT vh FROM VisitorHistory vh
+          WHERE (:visitorId IS NULL OR vh.visitorId = :visitorId)
+            AND vh.checkInTime >= COALESCE(:start, vh.checkInTime)
+            AND vh.checkInTime <= COALESCE(:end, vh.checkInTime)
+            AND (vh.checkInTime < :cursorTime
+                 OR (vh.checkInTime = :cursorTime AND vh.id < :cursorId))
+          ORDER BY vh.checkInTime DESC, vh.id DESC
+      """)
+  List<VisitorHistory> findByVisitorIdWithFiltersAfter(
+      @Param("visitorId") Long visitorId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
+      @Param("cursorTime") LocalDateTime cursorTime,
+      @Param("cursorId") Long cursorId,
+      Pageable limit);
+
+  @Query(SUMMARY_SELECT + """
+          WHERE (:tenantId IS NULL OR t.id = :tenantId)
+            AND v.visitDate BETWEEN :startDate AND :endDate
+            AND (v.visitDate < :cursorDate
+                 OR (v.visitDate = :cursorDate AND v.id < :cursorId))
+          ORDER BY v.visitDate DESC, v.id DESC
+      """)
+  List<VisitorHistorySummary> findByFiltersAfter(
+      @Param("tenantId") Long tenantId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate,
+      @Param("cursorDate") LocalDate cursorDate,
+      @Param("cursorId") Long cursorId,
+      Pageable limit);
+
+  // Export: forward-only cursor, fetched in chunks; the caller must hold a transaction
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(SUMMARY_SELECT + """
+          WHERE (:tenantId IS NULL OR t.id = :tenantId)
+            AND v.visitDate BETWEEN :startDate AND :endDate
+          ORDER BY v.visitDate, v.id
+      """)
+  Stream<VisitorHistorySummary> streamByFilters(
+      @Param("tenantId") Long tenantId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate);
 }
@@ -1,8 +1,11 @@
 package com.smartsecurity.system.repository;
 
+import com.smartsecurity.system.dto.VisitorSummary;
 import com.smartsecurity.system.entity.Visitor;
 import com.smartsecurity.system.enums.VisitStatus;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +19,54 @@ import java.util.List;
 public interface VisitorRepository extends JpaRepository<Visitor, Long> {
         List<Visitor> findByVisitDate(LocalDate date);
 
+        String SUMMARY_SELECT = """
+                        SELECT new com.smartsecurity.system.dto.VisitorSummary(
+                            v.id, v.visitorName, v.mobileNumber, v.visitType, v.visitDate, v.status,
+                            t.id, t.companyName, v.createdBy, v.approvedBy, v.checkInTime, v.checkOutTime,
+                            v.photoHash, v.imageUrl)
+                        FROM Visitor v
+                        LEFT JOIN v.tenant t
+                        """;
+
+        String SUMMARY_COUNT = """
+                        SELECT COUNT(v)
+                        FROM Visitor v
+                        LEFT JOIN v.tenant t
+                        """;
+
+        @Query(value = SUMMARY_SELECT + "WHERE v.visitDate = :date",
+                        countQuery = SUMMARY_COUNT + "WHERE v.visitDate = :date")
+        Page<VisitorSummary> findSummariesByVisitDate(@Param("date") LocalDate date, Pageable pageable);
+
+        @Query(value = SUMMARY_SELECT + "WHERE v.checkInTime IS NOT NULL AND v.checkOutTime IS NULL",
+                        countQuery = SUMMARY_COUNT + "WHERE v.checkInTime IS NOT NULL AND v.checkOutTime IS NULL")
+        Page<VisitorSummary> findCheckedInSummaries(Pageable pageable);
+
+        @Query(SUMMARY_SELECT + "WHERE v.checkInTime IS NOT NULL AND v.checkOutTime IS NULL")
+        List<VisitorSummary> findAllCheckedInSummaries();
+
+        @Query(value = SUMMARY_SELECT + "WHERE v.checkOutTime IS NOT NULL",
+                        countQuery = SUMMARY_COUNT + "WHERE v.checkOutTime IS NOT NULL")
+        Page<VisitorSummary> findCheckedOutSummaries(Pageable pageable);
+
+        @Query(value = SUMMARY_SELECT + "WHERE t.id = :tenantId",
+                        countQuery = SUMMARY_COUNT + "WHERE t.id = :tenantId")
+        Page<VisitorSummary> findSummariesByTenant(@Param("tenantId") Long tenantId, Pageable pageable);
+
+        @Query(value = SUMMARY_SELECT + "WHERE t.id = :tenantId AND v.status = :status",
+                        countQuery = SUMMARY_COUNT + "WHERE t.id = :tenantId AND v.status = :status")
+        Page<VisitorSummary> findSummariesByTenantAndStatus(
+                        @Param("tenantId") Long tenantId,
+                        @Param("status") VisitStatus status,
+                        Pageable pageable);
+
+        @Query(value = SUMMARY_SELECT + "WHERE t.id = :tenantId AND v.visitDate = :date",
+                        countQuery = SUMMARY_COUNT + "WHERE t.id = :tenantId AND v.visitDate = :date")
+        Page<VisitorSummary> findSummariesByTenantAndVisitDate(
+                        @Param("tenantId") Long tenantId,
+                        @Param("date") LocalDate date,
+                        Pageable pageable);
+
         long countByVisitDateAndStatusIn(LocalDate date, List<VisitStatus> statuses);
 
         @Query("""
@@ -32,33 +83,16 @@ public interface VisitorRepository extends JpaRepository<Visitor, Long> {
                         @Param("adminId") Integer adminId);
 
         @Query("""
-                            SELECT v.visitDate, COUNT(v)
-                            FROM Visitor v
-                            WHERE v.visitDate >= :start
-                            GROUP BY v.visitDate
-                            ORDER BY v.visitDate
-                        """)
-        List<Object[]> countDailyVisitors(@Param("start") LocalDate start);
-
-        @Query("""
-                            SELECT FUNCTION('date_trunc', 'week', v.visitDate), COUNT(v)
+                            SELECT COUNT(DISTINCT v.id)
                             FROM Visitor v
-                            WHERE v.visitDate >= :start
-                            GROUP BY FUNCTION('date_trunc', 'week', v.visitDate)
-                            ORDER BY FUNCTION('date_trunc', 'week', v.visitDate)
-                        """)
-        List<Object[]> countWeeklyVisitors(@Param("start") LocalDate start);
-
-        @Query("""
-                           SELECT
-                               YEAR(v.visitDate),
-                               MONTH(v.visitDate),
-                               COUNT(v)
-                           FROM Visitor v
-                           WHERE v.visitDate >= :start
-                           GROUP BY YEAR(v.visitDate), MONTH(v.visitDate)
-                           ORDER BY YEAR(v.visitDate), MONTH(v.visitDate)
+                            JOIN v.assignedAdmins a
+                            WHERE v.status = :status
+                              AND v.tenant.id = :tenantId
+                              AND a.id = :adminId
                         """)
-        List<Object[]> countMonthlyVisitors(@Param("start") LocalDate start);
+        long countPendingForAdmin(
+                        @Param("status") VisitStatus status,
+                        @Param("tenantId") Long tenantId,
+                        @Param("adminId") Integer adminId);
 
 }
@@ -1,20 +1,21 @@
 package com.smartsecurity.system.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,24 +25,45 @@ import com.smartsecurity.system.entity.User;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Request attribute with the caller's tenant id, for tagging request metrics. */
+    public static final String TENANT_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".tenant";
+
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+
+    // Time spent in this filter only, not in the rest of the chain
+    private final Timer anonymousTimer;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(JwtService jwtService, PrincipalCache principalCache,
+            TokenVersionRegistry tokenVersions, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
 
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
+        final long started = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            anonymousTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
             filterChain.doFilter(request, response);
             return;
         }
@@ -49,10 +71,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Signature and expiry are checked once here
+            Claims claims = jwtService.validate(jwt);
+            userEmail = claims.getSubject();
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                UserDetails userDetails;
+                if (JwtPrincipal.isClaimsToken(claims)) {
+                    // Self-contained token: no user lookup, only the in-memory version check
+                    JwtPrincipal principal = JwtPrincipal.from(claims);
+                    if (!tokenVersions.isCurrent(principal.userId(), principal.tokenVersion())) {
+                        reject(response, "JWT token has been revoked", started);
+                        return;
+                    }
+                    userDetails = principal.toUser();
+                } else {
+                    userDetails = principalCache.load(userEmail);
+                }
+                if (userEmail.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -60,20 +95,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    if (userDetails instanceof User user && user.getTenant() != null) {
+                        request.setAttribute(TENANT_ATTRIBUTE, user.getTenant().getId());
+                    }
                 }
             }
+            authenticatedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
             filterChain.doFilter(request, response);
         } catch (ExpiredJwtException e) {
-            handleException(response, "JWT token has expired", HttpServletResponse.SC_UNAUTHORIZED);
+            reject(response, "JWT token has expired", started);
         } catch (MalformedJwtException e) {
-            handleException(response, "Invalid JWT token format", HttpServletResponse.SC_UNAUTHORIZED);
+            reject(response, "Invalid JWT token format", started);
         } catch (SignatureException e) {
-            handleException(response, "Invalid JWT signature", HttpServletResponse.SC_UNAUTHORIZED);
+            reject(response, "Invalid JWT signature", started);
         } catch (Exception e) {
-            handleException(response, "Authentication error: " + e.getMessage(), HttpServletResponse.SC_UNAUTHORIZED);
+            reject(response, "Authentication error: " + e.getMessage(), started);
         }
     }
 
+    private void reject(HttpServletResponse response, String message, long started) throws IOException {
+        rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        handleException(response, message, HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    private static Timer filterTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("security.jwt.filter")
+                .description("Token validation and principal loading in the JWT filter")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
     private void handleException(HttpServletResponse response, String message, int status) throws IOException {
         response.setStatus(status);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -0,0 +1,67 @@
+package com.smartsecurity.system.security;
+
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.enums.UserStatus;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identity carried entirely by a claims-mode token. Converted to a transient
+ * {@link User} for the security context so existing controllers keep working;
+ * that user only has id, email, name, role and a tenant stub holding the id.
+ */
+public record JwtPrincipal(Integer userId, String email, String fullName, Role role, Long tenantId,
+        Integer tokenVersion) {
+
+    static final String USER_ID = "uid";
+    static final String ROLE = "role";
+    static final String TENANT_ID = "tid";
+    static final String TOKEN_VERSION = "sv";
+    static final String NAME = "name";
+
+    public static boolean isClaimsToken(Claims claims) {
+        return claims.containsKey(USER_ID);
+    }
+
+    public static JwtPrincipal from(Claims claims) {
+        Number tenantId = claims.get(TENANT_ID, Number.class);
+        Number version = claims.get(TOKEN_VERSION, Number.class);
+        return new JwtPrincipal(
+                claims.get(USER_ID, Number.class).intValue(),
+                claims.getSubject(),
+                claims.get(NAME, String.class),
+                Role.valueOf(claims.get(ROLE, String.class)),
+                tenantId != null ? tenantId.longValue() : null,
+                version != null ? version.intValue() : 0);
+    }
+
+    public static Map<String, Object> claimsOf(User user, int tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID, user.getId());
+        claims.put(ROLE, user.getRole().name());
+        claims.put(TOKEN_VERSION, tokenVersion);
+        claims.put(NAME, user.getFullName());
+        if (user.getTenant() != null) {
+            claims.put(TENANT_ID, user.getTenant().getId());
+        }
+        return claims;
+    }
+
+    public User toUser() {
+        return User.builder()
+                .id(userId)
+                .email(email)
+                .fullName(fullName)
+                .role(role)
+                // Only tokens of active users pass the version check
+                .status(UserStatus.ACTIVE)
+                .tokenVersion(tokenVersion)
+                .tenant(tenantId != null ? Tenant.builder().id(tenantId).build() : null)
+                .build();
+    }
+}
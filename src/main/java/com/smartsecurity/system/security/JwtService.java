@@ -1,6 +1,10 @@
 package com.smartsecurity.system.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartsecurity.system.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +13,10 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,19 +25,73 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final boolean claimsMode;
+    // SHA-256 of recently verified tokens -> their claims; null when disabled
+    private final Cache<String, Claims> verified;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    public JwtService(
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize,
+            @Value("${jwt.claims-mode:false}") boolean claimsMode) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.claimsMode = claimsMode;
+        this.verified = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfterWrite(Duration.ofMinutes(5))
+                        .build()
+                : null;
+    }
+
+    /**
+     * Verifies signature and expiry in one pass and returns the claims. Throws
+     * the usual {@link io.jsonwebtoken.JwtException} subtypes on a bad token.
+     */
+    public Claims validate(String token) {
+        if (verified == null) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+        String digest = digest(token);
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            return claims;
+        }
+        // Not seen or expired since: parse for real so expiry surfaces as ExpiredJwtException
+        claims = parser.parseSignedClaims(token).getPayload();
+        verified.put(digest, claims);
+        return claims;
+    }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return validate(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(validate(token));
+    }
+
+    /**
+     * Issues a login token. In claims mode it carries user id, role, tenant id
+     * and token version so requests can be authorised without a user lookup.
+     */
+    public String issueToken(User user, int tokenVersion) {
+        return claimsMode
+                ? generateToken(JwtPrincipal.claimsOf(user, tokenVersion), user)
+                : generateToken(user);
+    }
+
+    public boolean isClaimsMode() {
+        return claimsMode;
+    }
+
+    public long getExpirationSeconds() {
+        return jwtExpiration / 1000;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -50,33 +112,20 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return userDetails.getUsername().equals(validate(token).getSubject());
     }
 
-    private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,59 @@
+package com.smartsecurity.system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartsecurity.system.dto.CacheStats;
+import com.smartsecurity.system.util.AfterCommit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Authenticated principals by email, so the JWT filter does not reload the
+ * user (and its tenant graph) on every request. Entries expire after a short
+ * TTL as a backstop; services that change a user evict it explicitly, both
+ * immediately and again after commit so a concurrent request cannot re-cache
+ * the old row.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> principals;
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails load(String email) {
+        return principals.get(email, userDetailsService::loadUserByUsername);
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        principals.invalidate(email);
+        AfterCommit.run(() -> principals.invalidate(email));
+    }
+
+    public void invalidateAll() {
+        principals.invalidateAll();
+        AfterCommit.run(principals::invalidateAll);
+    }
+
+    public CacheStats getStats() {
+        return CacheStats.of("principals", principals.estimatedSize(), principals.stats());
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartsecurity.system.security;
+
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.repository.UserRepository;
+import com.smartsecurity.system.util.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version of every user, held in memory so claims tokens can be
+ * checked without a query. A token whose version differs, or whose user is
+ * gone, is rejected; bumping the version therefore revokes outstanding tokens.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+
+    // Loaded before the web server starts: until then every claims token would look revoked
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : userRepository.findAllTokenVersions()) {
+            loaded.put((Integer) row[0], row[1] != null ? (Integer) row[1] : 0);
+        }
+        versions.clear();
+        versions.putAll(loaded);
+        log.info("Token version registry loaded {} users", versions.size());
+    }
+
+    public boolean isCurrent(Integer userId, Integer version) {
+        Integer current = versions.get(userId);
+        return current != null && current.equals(version);
+    }
+
+    public int versionOf(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    /** Records a newly created user once the caller's transaction commits. */
+    public void register(User user) {
+        Integer id = user.getId();
+        int version = versionOf(user);
+        AfterCommit.run(() -> versions.put(id, version));
+    }
+
+    /**
+     * Increments the user's version; the caller saves the entity. Tokens
+     * issued before the change stop working once the transaction commits.
+     */
+    public void bump(User user) {
+        int next = versionOf(user) + 1;
+        user.setTokenVersion(next);
+        Integer id = user.getId();
+        AfterCommit.run(() -> versions.put(id, next));
+    }
+
+    public void remove(Integer userId) {
+        AfterCommit.run(() -> versions.remove(userId));
+    }
+
+    public void removeAll(Collection<Integer> userIds) {
+        AfterCommit.run(() -> userIds.forEach(versions::remove));
+    }
+}
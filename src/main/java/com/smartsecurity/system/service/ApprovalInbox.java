@@ -0,0 +1,149 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.enums.GateEventType;
+import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-admin pending-approval inbox over Server-Sent Events. A walk-in is
+ * pushed to each admin it was assigned to as soon as it commits, and a
+ * resolve message follows when it is approved, rejected or deleted. On connect
+ * the admin gets a pending count so the app can render without polling.
+ * Each connection has its own bounded queue (see {@link SseChannel}), so one
+ * admin's stalled app never delays another's.
+ */
+@Service
+public class ApprovalInbox {
+
+    private static final String PENDING = VisitStatus.PENDING.name();
+
+    private final VisitorService visitorService;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final Map<Integer, Set<Subscriber>> inboxes = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+
+    public ApprovalInbox(VisitorService visitorService,
+            @Value("${gate.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${gate.stream.buffer-size:256}") int bufferSize) {
+        this.visitorService = visitorService;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "approval-inbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record Subscriber(SseChannel channel, Long tenantId) {
+    }
+
+    public SseEmitter subscribe(User admin) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Integer adminId = admin.getId();
+        SseChannel channel = new SseChannel(emitter, bufferSize, senders, closed -> unsubscribe(adminId, closed));
+        Subscriber subscriber = new Subscriber(channel, admin.getTenant().getId());
+        emitter.onCompletion(channel::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> channel.close());
+
+        // Register before counting so nothing committed in between is lost;
+        // clients de-duplicate on visitor id
+        inboxes.computeIfAbsent(adminId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        long pending = visitorService.countPendingApprovals(admin);
+        channel.offer(SseEmitter.event()
+                .name("snapshot")
+                .data(Map.of("pendingCount", pending), MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        if (event.getAssignedAdminIds() == null || event.getAssignedAdminIds().isEmpty()) {
+            return;
+        }
+        String name = inboxEventName(event);
+        if (name == null) {
+            return;
+        }
+        for (Integer adminId : event.getAssignedAdminIds()) {
+            Set<Subscriber> subscribers = inboxes.get(adminId);
+            if (subscribers == null) {
+                continue;
+            }
+            for (Subscriber subscriber : subscribers) {
+                // Matches findPendingForAdmin, which only lists the admin's own tenant
+                if (subscriber.tenantId().equals(event.getTenantId())) {
+                    subscriber.channel().offer(SseEmitter.event()
+                            .name(name)
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        }
+    }
+
+    /** The inbox message a gate event turns into, or {@code null} if admins don't care. */
+    static String inboxEventName(GateEvent event) {
+        if (event.getType() == GateEventType.VISITOR_CREATED && PENDING.equals(event.getStatus())) {
+            return "pending-added";
+        }
+        if (!PENDING.equals(event.getPreviousStatus())) {
+            return null;
+        }
+        // A deleted visitor keeps its status, so previous and current are both PENDING
+        if (event.getType() == GateEventType.VISITOR_DELETED || !PENDING.equals(event.getStatus())) {
+            return "pending-resolved";
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${gate.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (inboxes.isEmpty()) {
+            return;
+        }
+        inboxes.values().forEach(subscribers -> {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.channel().offer(SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        List<Subscriber> all = inboxes.values().stream().flatMap(Set::stream).toList();
+        inboxes.clear();
+        all.forEach(subscriber -> {
+            subscriber.channel().close();
+            subscriber.channel().emitter().complete();
+        });
+    }
+
+    private void unsubscribe(Integer adminId, SseChannel channel) {
+        inboxes.computeIfPresent(adminId, (id, subscribers) -> {
+            subscribers.removeIf(subscriber -> subscriber.channel() == channel);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -7,14 +7,17 @@ import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.repository.UserRepository;
 import com.smartsecurity.system.security.JwtAuthenticationFilter;
 import com.smartsecurity.system.security.JwtService;
+import com.smartsecurity.system.security.PrincipalCache;
+import com.smartsecurity.system.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -24,33 +27,24 @@ public class AuthService {
         private final UserRepository userRepository;
         private final JwtService jwtService;
         private final AuthenticationManager authenticationManager;
+        private final NotificationRecipientRegistry recipientRegistry;
+        private final PrincipalCache principalCache;
+        private final TokenVersionRegistry tokenVersions;
+        private final RefreshTokenService refreshTokenService;
 
         public AuthResponse authenticate(AuthRequest request) {
                 try {
                         // Sanitize email input
                         String email = request.getEmail().trim().toLowerCase();
 
-                        // Authenticate user credentials
-                        authenticationManager.authenticate(
+                        // Authenticate user credentials; the provider already loaded the user
+                        Authentication authentication = authenticationManager.authenticate(
                                         new UsernamePasswordAuthenticationToken(email, request.getPassword()));
-
-                        // Retrieve user details
-                        User user = userRepository.findByEmail(email)
-                                        .orElseThrow(() -> {
-                                                log.warn("User not found after successful authentication: {}", email);
-                                                return new UsernameNotFoundException("User not found");
-                                        });
-
-                        // Generate JWT token
-                        String jwtToken = jwtService.generateToken(user);
+                        User user = (User) authentication.getPrincipal();
 
                         log.info("User authenticated successfully: {} with role: {}", email, user.getRole());
 
-                        return AuthResponse.builder()
-                                        .token(jwtToken)
-                                        .role(user.getRole())
-                                        .fullName(user.getFullName())
-                                        .build();
+                        return issueTokens(user, refreshTokenService.issue(user.getId()));
 
                 } catch (BadCredentialsException e) {
                         log.warn("Failed login attempt for email: {} - Invalid credentials", request.getEmail());
@@ -64,15 +58,52 @@ public class AuthService {
                 }
         }
 
-        public void saveFcmToken(String fcmToken) {
+        /**
+         * Trades a refresh token for a new access token and a rotated refresh
+         * token, without re-checking the password.
+         */
+        @Transactional(noRollbackFor = BadCredentialsException.class)
+        public AuthResponse refresh(String refreshToken) {
+                RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+                User user = userRepository.findById(rotation.userId())
+                                .filter(User::isEnabled)
+                                .orElseThrow(() -> new BadCredentialsException("User is no longer active"));
+                return issueTokens(user, rotation.refreshToken());
+        }
+
+        public void logout(String refreshToken, boolean everywhere) {
+                if (!everywhere) {
+                        refreshTokenService.revoke(refreshToken);
+                        return;
+                }
+                User user = JwtAuthenticationFilter.getCurrentUser();
+                if (user == null) {
+                        throw new BadCredentialsException("Login required to sign out everywhere");
+                }
+                refreshTokenService.revokeAllForUser(user.getId());
+        }
+
+        private AuthResponse issueTokens(User user, String refreshToken) {
+                return AuthResponse.builder()
+                                .token(jwtService.issueToken(user, tokenVersions.versionOf(user)))
+                                .refreshToken(refreshToken)
+                                .expiresIn(jwtService.getExpirationSeconds())
+                                .role(user.getRole())
+                                .fullName(user.getFullName())
+                                .build();
+        }
 
-                User user1 = JwtAuthenticationFilter.getCurrentUser();
+        @Transactional
+        public void saveFcmToken(String fcmToken) {
 
-                User user = userRepository.findById(user1.getId())
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                User user = JwtAuthenticationFilter.getCurrentUser();
 
-                user.setFcmToken(fcmToken);
-                userRepository.save(user);
+                // Single UPDATE, no need to load the user first
+                if (userRepository.updateFcmToken(user.getId(), fcmToken) == 0) {
+                        throw new RuntimeException("User not found");
+                }
+                recipientRegistry.updateToken(user.getId(), fcmToken);
+                principalCache.invalidate(user.getEmail());
         }
 
 }
@@ -0,0 +1,129 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.config.SchedulingConfig;
+import com.smartsecurity.system.entity.DailyRollup;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.event.GateEvent;
+import com.smartsecurity.system.repository.DailyRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Maintains {@code daily_rollups}: per-day, per-tenant, per-status counts of
+ * visitors (by visit date) and vehicle check-ins (by check-in date). Each
+ * committed {@link GateEvent} moves a count with a single upsert; a nightly
+ * pass recounts recent days from the source tables to repair drift, such as
+ * a visit moved to another date.
+ */
+@Slf4j
+@Service
+public class DailyRollups implements SmartInitializingSingleton {
+
+    // Far enough back to cover any history on the first backfill
+    private static final LocalDate BACKFILL_FROM = LocalDate.of(2000, 1, 1);
+
+    private final DailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int repairDays;
+    private final int aheadDays;
+
+    public DailyRollups(DailyRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${reports.rollups.repair-days:35}") int repairDays,
+            @Value("${reports.rollups.ahead-days:366}") int aheadDays) {
+        this.rollupRepository = rollupRepository;
+        // Events arrive after the publisher's commit, so always run in a transaction of our own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.repairDays = repairDays;
+        this.aheadDays = aheadDays;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (rollupRepository.count() == 0) {
+            // First start with rollups: build them from the whole history
+            rebuild(BACKFILL_FROM, LocalDate.now().plusDays(aheadDays));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        if (event.getVisitDate() == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(event));
+        } catch (RuntimeException e) {
+            // The chart is off until the nightly repair, the gate action itself already committed
+            log.warn("Could not update daily rollup for {} {}: {}", event.getType(), event.getSubjectId(),
+                    e.getMessage());
+        }
+    }
+
+    private void apply(GateEvent event) {
+        switch (event.getType()) {
+            case VISITOR_CREATED -> add(OccupantType.VISITOR, event, event.getStatus(), 1);
+            case VISITOR_DELETED -> add(OccupantType.VISITOR, event, event.getPreviousStatus(), -1);
+            case VISITOR_UPDATED, VISITOR_APPROVED, VISITOR_REJECTED,
+                    VISITOR_CHECKED_IN, VISITOR_CHECKED_OUT -> move(OccupantType.VISITOR, event);
+            // Each check-in opens a vehicle_history row; deleting a vehicle keeps its history
+            case VEHICLE_CHECKED_IN -> add(OccupantType.VEHICLE, event, event.getStatus(), 1);
+            case VEHICLE_CHECKED_OUT -> move(OccupantType.VEHICLE, event);
+            default -> {
+            }
+        }
+    }
+
+    @Scheduled(cron = "${reports.rollups.repair-cron:0 15 2 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void repair() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(repairDays), today.plusDays(aheadDays));
+    }
+
+    /**
+     * Recounts both subjects for {@code from..to} (inclusive) from the source
+     * tables, replacing whatever the rollups held for those days.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        long started = System.currentTimeMillis();
+        int rows = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            rollupRepository.deleteRange(OccupantType.VISITOR.name(), from, to);
+            rollupRepository.deleteRange(OccupantType.VEHICLE.name(), from, to);
+            return rollupRepository.rebuildVisitors(from, to)
+                    + rollupRepository.rebuildVehicles(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        }));
+        log.info("Rebuilt {} daily rollup rows for {}..{} in {} ms", rows, from, to,
+                System.currentTimeMillis() - started);
+    }
+
+    private void move(OccupantType subject, GateEvent event) {
+        if (Objects.equals(event.getStatus(), event.getPreviousStatus())) {
+            return;
+        }
+        if (event.getPreviousStatus() != null) {
+            add(subject, event, event.getPreviousStatus(), -1);
+        }
+        add(subject, event, event.getStatus(), 1);
+    }
+
+    private void add(OccupantType subject, GateEvent event, String status, long delta) {
+        rollupRepository.addTo(
+                event.getVisitDate(),
+                subject.name(),
+                event.getTenantId() != null ? event.getTenantId() : DailyRollup.NO_TENANT,
+                status != null ? status : "UNKNOWN",
+                delta);
+    }
+}
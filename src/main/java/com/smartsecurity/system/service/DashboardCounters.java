@@ -0,0 +1,176 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.entity.DashboardCounter;
+import com.smartsecurity.system.enums.VehicleStatus;
+import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
+import com.smartsecurity.system.repository.DashboardCounterRepository;
+import com.smartsecurity.system.repository.TenantRepository;
+import com.smartsecurity.system.repository.VehicleRepository;
+import com.smartsecurity.system.repository.VisitorRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Super-admin dashboard figures kept as in-memory counters. Committed
+ * {@link GateEvent}s move them, so reading the dashboard is a map lookup.
+ * Values are flushed to {@code dashboard_counters} to seed the next start,
+ * and periodically reconciled against SQL to absorb anything missed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCounters implements SmartInitializingSingleton {
+
+    static final String TOTAL_TENANTS = "total_tenants";
+    static final String TOTAL_VEHICLES = "total_vehicles";
+    static final String VEHICLES_INSIDE = "vehicles_inside";
+    // Per visit date: visitors that checked in (and maybe out) on that date
+    static final String VISITORS_ACTIVE_PREFIX = "visitors_active:";
+
+    private static final Set<String> ACTIVE_VISIT_STATUSES = Set.of(
+            VisitStatus.CHECKED_IN.name(), VisitStatus.CHECKED_OUT.name());
+    private static final String VEHICLE_INSIDE_STATUS = VehicleStatus.CHECKED_IN.name();
+
+    private final DashboardCounterRepository counterRepository;
+    private final TenantRepository tenantRepository;
+    private final VehicleRepository vehicleRepository;
+    private final VisitorRepository visitorRepository;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        counterRepository.findAll().forEach(c -> counter(c.getName()).add(c.getValue()));
+        if (counters.isEmpty()) {
+            // First start: nothing persisted yet, count once before serving
+            reconcile();
+        }
+        log.info("Dashboard counters seeded with {} values", counters.size());
+    }
+
+    public long get(String name) {
+        LongAdder adder = counters.get(name);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    public long totalTenants() {
+        return get(TOTAL_TENANTS);
+    }
+
+    public long totalVehicles() {
+        return get(TOTAL_VEHICLES);
+    }
+
+    public long vehiclesInside() {
+        return get(VEHICLES_INSIDE);
+    }
+
+    public long visitorsOn(LocalDate date) {
+        return get(VISITORS_ACTIVE_PREFIX + date);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        switch (event.getType()) {
+            case TENANT_CREATED -> counter(TOTAL_TENANTS).increment();
+            case TENANT_DELETED -> counter(TOTAL_TENANTS).decrement();
+            case VEHICLE_ENTRY_REQUESTED -> counter(TOTAL_VEHICLES).increment();
+            case VEHICLE_DELETED -> {
+                counter(TOTAL_VEHICLES).decrement();
+                if (VEHICLE_INSIDE_STATUS.equals(event.getPreviousStatus())) {
+                    counter(VEHICLES_INSIDE).decrement();
+                }
+            }
+            case VEHICLE_CHECKED_IN, VEHICLE_CHECKED_OUT ->
+                counter(VEHICLES_INSIDE).add(
+                        inside(event.getStatus()) - inside(event.getPreviousStatus()));
+            case VISITOR_DELETED -> {
+                if (event.getVisitDate() != null && ACTIVE_VISIT_STATUSES.contains(event.getPreviousStatus())) {
+                    counter(VISITORS_ACTIVE_PREFIX + event.getVisitDate()).decrement();
+                }
+            }
+            case VISITOR_CHECKED_IN, VISITOR_CHECKED_OUT -> {
+                if (event.getVisitDate() != null) {
+                    counter(VISITORS_ACTIVE_PREFIX + event.getVisitDate()).add(
+                            active(event.getStatus()) - active(event.getPreviousStatus()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Recomputes every counter from SQL and corrects drift in place. Events
+     * committed while the counts run may be off by one until the next pass.
+     */
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-initial-delay-ms:10000}",
+            fixedDelayString = "${dashboard.counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        correct(TOTAL_TENANTS, tenantRepository.count());
+        correct(TOTAL_VEHICLES, vehicleRepository.count());
+        correct(VEHICLES_INSIDE, vehicleRepository.countByStatus(VehicleStatus.CHECKED_IN));
+        correct(VISITORS_ACTIVE_PREFIX + today, visitorRepository.countByVisitDateAndStatusIn(
+                today, List.of(VisitStatus.CHECKED_IN, VisitStatus.CHECKED_OUT)));
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.counters.flush-interval-ms:30000}")
+    public void flush() {
+        // Only today's per-date counter is worth keeping
+        String todayKey = VISITORS_ACTIVE_PREFIX + LocalDate.now();
+        List<String> stale = counters.keySet().stream()
+                .filter(name -> name.startsWith(VISITORS_ACTIVE_PREFIX) && !name.equals(todayKey))
+                .toList();
+        if (!stale.isEmpty()) {
+            stale.forEach(counters::remove);
+            counterRepository.deleteAllById(stale);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DashboardCounter> rows = new ArrayList<>();
+        counters.forEach((name, adder) -> rows.add(DashboardCounter.builder()
+                .name(name)
+                .value(adder.sum())
+                .updatedAt(now)
+                .build()));
+        counterRepository.saveAll(rows);
+    }
+
+    private void correct(String name, long actual) {
+        LongAdder adder = counter(name);
+        long drift = actual - adder.sum();
+        if (drift != 0) {
+            adder.add(drift);
+            log.info("Dashboard counter {} corrected by {}", name, drift);
+        }
+    }
+
+    private LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    private static long inside(String status) {
+        return VEHICLE_INSIDE_STATUS.equals(status) ? 1 : 0;
+    }
+
+    private static long active(String status) {
+        return status != null && ACTIVE_VISIT_STATUSES.contains(status) ? 1 : 0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.PushMessage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accepts every message without leaving the process, optionally sleeping to
+ * mimic FCM latency. Enabled with {@code notification.sender=fake}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "notification.sender", havingValue = "fake")
+public class FakePushSender implements PushSender {
+
+    private final long latencyMillis;
+    private final AtomicLong delivered = new AtomicLong();
+
+    public FakePushSender(@Value("${notification.fake.latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public List<Result> send(List<PushMessage> batch) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Collections.nCopies(batch.size(), Result.retry("interrupted"));
+            }
+        }
+        delivered.addAndGet(batch.size());
+        log.debug("Fake push sender accepted {} messages", batch.size());
+        return Collections.nCopies(batch.size(), Result.ok());
+    }
+
+    @Override
+    public String name() {
+        return "fake";
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartsecurity.system.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import com.smartsecurity.system.dto.PushMessage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@ConditionalOnProperty(name = "notification.sender", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushSender implements PushSender {
+
+    private static final Set<MessagingErrorCode> RETRYABLE = EnumSet.of(
+            MessagingErrorCode.UNAVAILABLE,
+            MessagingErrorCode.INTERNAL,
+            MessagingErrorCode.QUOTA_EXCEEDED);
+
+    @Override
+    public List<Result> send(List<PushMessage> batch) {
+        List<Message> messages = batch.stream().map(FirebasePushSender::toMessage).toList();
+        try {
+            BatchResponse response = FirebaseMessaging.getInstance().sendEach(messages);
+            return response.getResponses().stream().map(FirebasePushSender::toResult).toList();
+        } catch (FirebaseMessagingException e) {
+            // The whole batch failed to go out, e.g. auth or network trouble
+            Result result = isRetryable(e) ? Result.retry(e.getMessage()) : Result.fail(e.getMessage());
+            return Collections.nCopies(batch.size(), result);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "firebase";
+    }
+
+    private static Message toMessage(PushMessage message) {
+        return Message.builder()
+                .setToken(message.getToken())
+                .setNotification(
+                        Notification.builder()
+                                .setTitle(message.getTitle())
+                                .setBody(message.getBody())
+                                .build())
+                .putData("click_action", "FLUTTER_NOTIFICATION_CLICK")
+                .build();
+    }
+
+    private static Result toResult(SendResponse response) {
+        if (response.isSuccessful()) {
+            return Result.ok();
+        }
+        FirebaseMessagingException e = response.getException();
+        return isRetryable(e) ? Result.retry(e.getMessage()) : Result.fail(e.getMessage());
+    }
+
+    private static boolean isRetryable(FirebaseMessagingException e) {
+        return e.getMessagingErrorCode() == null || RETRYABLE.contains(e.getMessagingErrorCode());
+    }
+}
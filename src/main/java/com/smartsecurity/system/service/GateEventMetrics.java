@@ -0,0 +1,24 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.event.GateEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts committed gate transitions by type. The {@code gate.operations}
+ * timers on the services count attempts, failures included; this counts
+ * what actually happened.
+ */
+@Component
+@RequiredArgsConstructor
+public class GateEventMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        meterRegistry.counter("gate.events", "type", event.getType().name()).increment();
+    }
+}
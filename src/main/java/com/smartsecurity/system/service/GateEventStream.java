@@ -0,0 +1,143 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.event.GateEvent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed {@link GateEvent}s to the gate consoles over Server-Sent
+ * Events. Every event gets a sequence id and the most recent ones are kept, so
+ * a console reconnecting with {@code Last-Event-ID} catches up without
+ * re-reading the lists. Each console has its own bounded queue (see
+ * {@link SseChannel}): a slow client never holds up the request that caused
+ * the event or the other consoles, and one that falls too far behind is
+ * disconnected and catches up on reconnect.
+ */
+@Service
+public class GateEventStream {
+
+    private static final int REPLAY_SIZE = 256;
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Guarded by "recent": sequencing and fan-out happen under it so replay and live events never overlap
+    private final Deque<Envelope> recent = new ArrayDeque<>();
+    private long sequence;
+    // A stuck client ties up one sender thread, never the others
+    private final ExecutorService senders;
+
+    public GateEventStream(@Value("${gate.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${gate.stream.buffer-size:256}") int bufferSize) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gate-event-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record Subscriber(SseChannel channel, Long tenantId) {
+        boolean wants(GateEvent event) {
+            return tenantId == null || tenantId.equals(event.getTenantId())
+                    || tenantId.equals(event.getPreviousTenantId());
+        }
+    }
+
+    private record Envelope(long id, GateEvent event) {
+    }
+
+    /**
+     * Opens a stream, optionally restricted to one tenant. When
+     * {@code lastEventId} is given, events after it that are still buffered
+     * are replayed before live delivery starts.
+     */
+    public SseEmitter subscribe(Long tenantId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Room for a full replay on top of the live buffer
+        SseChannel channel = new SseChannel(emitter, REPLAY_SIZE + bufferSize, senders,
+                closed -> subscribers.removeIf(s -> s.channel() == closed));
+        Subscriber subscriber = new Subscriber(channel, tenantId);
+        emitter.onCompletion(channel::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> channel.close());
+
+        synchronized (recent) {
+            channel.offer(SseEmitter.event().comment("connected").reconnectTime(RECONNECT_MILLIS));
+            if (lastEventId != null) {
+                for (Envelope envelope : recent) {
+                    if (envelope.id() > lastEventId && subscriber.wants(envelope.event())) {
+                        channel.offer(toSse(envelope));
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        synchronized (recent) {
+            Envelope envelope = new Envelope(++sequence, event);
+            recent.addLast(envelope);
+            if (recent.size() > REPLAY_SIZE) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.wants(event)) {
+                    subscriber.channel().offer(toSse(envelope));
+                }
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects dead clients
+    @Scheduled(fixedDelayString = "${gate.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.channel().offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.channel().close();
+            subscriber.channel().emitter().complete();
+        }
+        subscribers.clear();
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Envelope envelope) {
+        return SseEmitter.event()
+                .id(String.valueOf(envelope.id()))
+                .name(envelope.event().getType().name())
+                .data(envelope.event(), MediaType.APPLICATION_JSON);
+    }
+}
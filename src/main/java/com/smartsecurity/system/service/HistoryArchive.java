@@ -0,0 +1,361 @@
+package com.smartsecurity.system.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsecurity.system.config.SchedulingConfig;
+import com.smartsecurity.system.dto.VisitorHistorySummary;
+import com.smartsecurity.system.entity.StaffHistory;
+import com.smartsecurity.system.entity.VehicleHistory;
+import com.smartsecurity.system.repository.StaffHistoryRepository;
+import com.smartsecurity.system.repository.VehicleHistoryRepository;
+import com.smartsecurity.system.repository.VisitorHistoryRepository;
+import com.smartsecurity.system.util.ColumnarFile;
+import com.smartsecurity.system.util.ColumnarFile.Kind;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Archives closed days of visitor, vehicle and staff history into columnar
+ * files under {@code archive.dir}, one file per table and day, listed in
+ * {@code manifest.json}. Enums and tenants are dictionary encoded and
+ * timestamps delta encoded (see {@link ColumnarFile}). The read side answers
+ * long-range counts from those files alone, inflating only the columns a
+ * query needs.
+ */
+@Slf4j
+@Service
+public class HistoryArchive {
+
+    public enum Table {
+        VISITOR_HISTORY("visitors"),
+        VEHICLE_HISTORY("vehicles"),
+        STAFF_HISTORY("staff");
+
+        private final String path;
+
+        Table(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static Table fromPath(String path) {
+            for (Table table : values()) {
+                if (table.path.equals(path)) {
+                    return table;
+                }
+            }
+            throw new RuntimeException("Unknown archive table: " + path);
+        }
+    }
+
+    public record ManifestEntry(Table table, LocalDate day, String file, int rows, long bytes,
+            LocalDateTime archivedAt) {
+    }
+
+    private record Column<T>(String name, Kind kind, Function<T, Object> value) {
+    }
+
+    private static final List<Column<VisitorHistorySummary>> VISITOR_COLUMNS = List.of(
+            new Column<>("id", Kind.INT64, VisitorHistorySummary::getId),
+            new Column<>("visitorId", Kind.INT64, VisitorHistorySummary::getVisitorId),
+            new Column<>("tenantId", Kind.DICT, VisitorHistorySummary::getTenantId),
+            new Column<>("companyName", Kind.DICT, VisitorHistorySummary::getCompanyName),
+            new Column<>("status", Kind.DICT, VisitorHistorySummary::getStatus),
+            new Column<>("visitType", Kind.DICT, VisitorHistorySummary::getVisitType),
+            new Column<>("visitDate", Kind.INT64, VisitorHistorySummary::getVisitDate),
+            new Column<>("checkInTime", Kind.INT64, VisitorHistorySummary::getCheckInTime),
+            new Column<>("checkOutTime", Kind.INT64, VisitorHistorySummary::getCheckOutTime),
+            new Column<>("visitorName", Kind.TEXT, VisitorHistorySummary::getVisitorName),
+            new Column<>("mobileNumber", Kind.TEXT, VisitorHistorySummary::getMobileNumber),
+            new Column<>("createdBy", Kind.INT64, VisitorHistorySummary::getCreatedBy),
+            new Column<>("approvedBy", Kind.INT64, VisitorHistorySummary::getApprovedBy));
+
+    private static final List<Column<VehicleHistory>> VEHICLE_COLUMNS = List.of(
+            new Column<>("id", Kind.INT64, VehicleHistory::getId),
+            new Column<>("vehicleId", Kind.INT64, VehicleHistory::getVehicleId),
+            new Column<>("tenantId", Kind.DICT, h -> h.getTenant() != null ? h.getTenant().getId() : null),
+            new Column<>("company", Kind.DICT, VehicleHistory::getCompany),
+            new Column<>("status", Kind.DICT, VehicleHistory::getStatus),
+            new Column<>("vehicleType", Kind.DICT, VehicleHistory::getVehicleType),
+            new Column<>("userType", Kind.DICT, VehicleHistory::getUserType),
+            new Column<>("checkInTime", Kind.INT64, VehicleHistory::getCheckInTime),
+            new Column<>("checkOutTime", Kind.INT64, VehicleHistory::getCheckOutTime),
+            new Column<>("vehicleNumber", Kind.TEXT, VehicleHistory::getVehicleNumber),
+            new Column<>("driverName", Kind.TEXT, VehicleHistory::getDriverName),
+            new Column<>("purpose", Kind.TEXT, VehicleHistory::getPurpose),
+            new Column<>("createdBy", Kind.INT64, VehicleHistory::getCreatedBy));
+
+    private static final List<Column<StaffHistory>> STAFF_COLUMNS = List.of(
+            new Column<>("id", Kind.INT64, StaffHistory::getId),
+            new Column<>("staffId", Kind.INT64, StaffHistory::getStaffId),
+            new Column<>("status", Kind.DICT, StaffHistory::getStatus),
+            new Column<>("checkInTime", Kind.INT64, StaffHistory::getCheckInTime),
+            new Column<>("checkOutTime", Kind.INT64, StaffHistory::getCheckOutTime),
+            new Column<>("employeeCode", Kind.TEXT, StaffHistory::getEmployeeCode),
+            new Column<>("name", Kind.TEXT, StaffHistory::getName),
+            new Column<>("createdBy", Kind.INT64, StaffHistory::getCreatedBy));
+
+    private final VisitorHistoryRepository visitorHistoryRepository;
+    private final VehicleHistoryRepository vehicleHistoryRepository;
+    private final StaffHistoryRepository staffHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path root;
+    private final int lagDays;
+    private final int catchUpDays;
+
+    // "TABLE/yyyy-MM-dd" -> entry, so a table's days sort together
+    private final NavigableMap<String, ManifestEntry> manifest = new ConcurrentSkipListMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public HistoryArchive(VisitorHistoryRepository visitorHistoryRepository,
+            VehicleHistoryRepository vehicleHistoryRepository,
+            StaffHistoryRepository staffHistoryRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${archive.dir:./data/archive}") String archiveDir,
+            @Value("${archive.lag-days:2}") int lagDays,
+            @Value("${archive.catch-up-days:30}") int catchUpDays) throws IOException {
+        this.visitorHistoryRepository = visitorHistoryRepository;
+        this.vehicleHistoryRepository = vehicleHistoryRepository;
+        this.staffHistoryRepository = staffHistoryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.root = Paths.get(archiveDir).toAbsolutePath().normalize();
+        this.lagDays = lagDays;
+        this.catchUpDays = catchUpDays;
+        Files.createDirectories(root);
+        loadManifest();
+        log.info("History archive at {} with {} files", root, manifest.size());
+    }
+
+    /**
+     * Archives every day that is old enough to be closed (check-outs and
+     * late edits settled) and not archived yet, looking back a bounded window.
+     */
+    @Scheduled(cron = "${archive.cron:0 30 1 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void archivePending() {
+        LocalDate last = LocalDate.now().minusDays(lagDays);
+        LocalDate first = last.minusDays(catchUpDays);
+        for (Table table : Table.values()) {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                if (!manifest.containsKey(key(table, day))) {
+                    try {
+                        archive(table, day);
+                    } catch (RuntimeException e) {
+                        // Picked up again by the next run while inside the catch-up window
+                        log.warn("Archiving {} for {} failed: {}", table, day, e.getMessage());
+                    }
+                }
+            }
+        }
+        saveManifest();
+    }
+
+    /** Re-archives {@code from..to} for every table, replacing existing files. */
+    public int archiveRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("A valid from/to date range is required");
+        }
+        int files = 0;
+        for (Table table : Table.values()) {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                archive(table, day);
+                files++;
+            }
+        }
+        saveManifest();
+        return files;
+    }
+
+    // Read side
+
+    /** Rows per archived day; days without a file are left out. */
+    public Map<LocalDate, Long> dailyCounts(Table table, LocalDate from, LocalDate to, Long tenantId) {
+        if (tenantId != null && table == Table.STAFF_HISTORY) {
+            // Staff belong to the building, not to a tenant
+            throw new RuntimeException("Staff history cannot be filtered by tenant");
+        }
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        for (ManifestEntry entry : entries(table, from, to)) {
+            if (tenantId == null) {
+                // No file read needed, the manifest has the row count
+                counts.put(entry.day(), (long) entry.rows());
+            } else {
+                String tenant = tenantId.toString();
+                counts.put(entry.day(), readColumn(entry, "tenantId").stream()
+                        .filter(tenant::equals)
+                        .count());
+            }
+        }
+        return counts;
+    }
+
+    /** Row counts grouped by one dictionary column (status, tenantId, vehicleType, ...). */
+    public Map<String, Long> countBy(Table table, String column, LocalDate from, LocalDate to) {
+        Map<String, Long> counts = new HashMap<>();
+        for (ManifestEntry entry : entries(table, from, to)) {
+            for (Object value : readColumn(entry, column)) {
+                counts.merge(value != null ? value.toString() : "NONE", 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    public List<ManifestEntry> entries(Table table, LocalDate from, LocalDate to) {
+        return new ArrayList<>(manifest.subMap(key(table, from), true, key(table, to), true).values());
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("dir", root.toString());
+        for (Table table : Table.values()) {
+            List<ManifestEntry> entries = entries(table, LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31));
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("files", entries.size());
+            stats.put("rows", entries.stream().mapToLong(ManifestEntry::rows).sum());
+            stats.put("bytes", entries.stream().mapToLong(ManifestEntry::bytes).sum());
+            stats.put("firstDay", entries.isEmpty() ? null : entries.get(0).day());
+            stats.put("lastDay", entries.isEmpty() ? null : entries.get(entries.size() - 1).day());
+            summary.put(table.getPath(), stats);
+        }
+        return summary;
+    }
+
+    // Write side
+
+    private void archive(Table table, LocalDate day) {
+        long started = System.currentTimeMillis();
+        ColumnarFile.Writer writer = switch (table) {
+            case VISITOR_HISTORY -> collect(VISITOR_COLUMNS, false,
+                    () -> visitorHistoryRepository.streamByFilters(null, day, day));
+            case VEHICLE_HISTORY -> collect(VEHICLE_COLUMNS, true,
+                    () -> vehicleHistoryRepository.streamByFilters(null, day.atStartOfDay(), day.atTime(LocalTime.MAX)));
+            case STAFF_HISTORY -> collect(STAFF_COLUMNS, true,
+                    () -> staffHistoryRepository.streamByFilters(day.atStartOfDay(), day.atTime(LocalTime.MAX)));
+        };
+
+        String file = table.getPath() + "/" + day.getYear() + "/" + day + ".ssca";
+        try {
+            long bytes = writer.writeTo(root.resolve(file));
+            manifest.put(key(table, day),
+                    new ManifestEntry(table, day, file, writer.getRows(), bytes, LocalDateTime.now()));
+            log.debug("Archived {} rows of {} for {} ({} bytes) in {} ms", writer.getRows(), table, day, bytes,
+                    System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive " + table + " for " + day, e);
+        }
+    }
+
+    private <T> ColumnarFile.Writer collect(List<Column<T>> columns, boolean detach,
+            Supplier<Stream<T>> rows) {
+        Map<String, Kind> schema = new LinkedHashMap<>();
+        columns.forEach(column -> schema.put(column.name(), column.kind()));
+        ColumnarFile.Writer writer = new ColumnarFile.Writer(schema);
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                stream.forEach(row -> {
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = toStored(columns.get(i).value().apply(row));
+                    }
+                    writer.addRow(values);
+                    if (detach) {
+                        entityManager.detach(row);
+                    }
+                });
+            }
+        });
+        return writer;
+    }
+
+    /** Dates as epoch days, timestamps as epoch millis (local wall time), enums and ids as text. */
+    private static Object toStored(Object value) {
+        if (value == null || value instanceof Long || value instanceof String) {
+            return value;
+        }
+        if (value instanceof Integer i) {
+            return i.longValue();
+        }
+        if (value instanceof LocalDate date) {
+            return date.toEpochDay();
+        }
+        if (value instanceof LocalDateTime time) {
+            return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    private List<Object> readColumn(ManifestEntry entry, String column) {
+        try {
+            return ColumnarFile.Reader.open(root.resolve(entry.file())).column(column);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive " + entry.file(), e);
+        }
+    }
+
+    private static String key(Table table, LocalDate day) {
+        return table.name() + "/" + day;
+    }
+
+    private void loadManifest() throws IOException {
+        Path path = root.resolve("manifest.json");
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        List<ManifestEntry> entries = objectMapper.readValue(path.toFile(), new TypeReference<>() {
+        });
+        entries.forEach(entry -> manifest.put(key(entry.table(), entry.day()), entry));
+    }
+
+    private synchronized void saveManifest() {
+        Path path = root.resolve("manifest.json");
+        try {
+            Path temp = Files.createTempFile(root, "manifest", ".tmp");
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), manifest.values());
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive manifest", e);
+        }
+    }
+}
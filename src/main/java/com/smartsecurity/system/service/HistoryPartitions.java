@@ -0,0 +1,277 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.config.SchedulingConfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly range partitions for the history tables. Keeps partitions created
+ * ahead of time and retires partitions older than the retention period: each
+ * one is written to a gzipped CSV under the archive directory, then detached
+ * and dropped. Rows whose key falls outside every partition (no date, or a
+ * visit booked further ahead than the window) land in a default partition.
+ *
+ * <p>The tables themselves are converted by the V4 migration. They have no
+ * primary key: PostgreSQL would require the partition key in it, so ids stay
+ * unique through their sequence and an index on {@code id} serves lookups.
+ */
+@Slf4j
+@Service
+public class HistoryPartitions implements SmartInitializingSingleton {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'p'yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("_p(\\d{4})_(\\d{2})$");
+
+    // Table -> partition key column
+    private static final Map<String, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put("visitor_history", "visit_date");
+        TABLES.put("vehicle_history", "check_in_time");
+        TABLES.put("staff_history", "check_in_time");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int aheadMonths;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public HistoryPartitions(DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${history.partitions.enabled:true}") boolean enabled,
+            @Value("${history.partitions.ahead-months:12}") int aheadMonths,
+            @Value("${history.partitions.retention-months:24}") int retentionMonths,
+            @Value("${archive.dir:./data/archive}") String archiveDir) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.aheadMonths = aheadMonths;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize().resolve("partitions");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Tables are converted by the V4 migration, this only tops up the window. Retiring
+        // waits for the schedule: right after V4 every old month would be exported and
+        // dropped before startup jobs such as the rollup backfill have read it
+        createUpcoming();
+    }
+
+    /** Creates the coming months' partitions and retires expired ones. */
+    @Scheduled(cron = "${history.partitions.cron:0 0 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void maintain() {
+        createUpcoming();
+        retireExpired();
+    }
+
+    private void createUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        TABLES.forEach((table, key) -> {
+            if (!exists(table) || !isPartitioned(table)) {
+                return;
+            }
+            for (YearMonth month = now; !month.isAfter(now.plusMonths(aheadMonths)); month = month.plusMonths(1)) {
+                try {
+                    createPartition(table, key, month);
+                } catch (RuntimeException e) {
+                    log.warn("Could not create partition {} for {}: {}", partitionName(table, month), table,
+                            e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void retireExpired() {
+        if (!enabled || retentionMonths <= 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        TABLES.keySet().forEach(table -> {
+            if (!exists(table) || !isPartitioned(table)) {
+                return;
+            }
+            for (String partition : partitions(table)) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(cutoff)) {
+                    retire(table, partition);
+                }
+            }
+        });
+    }
+
+    public Map<String, List<String>> getPartitions() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        TABLES.keySet().forEach(table -> result.put(table, exists(table) ? partitions(table) : List.of()));
+        return result;
+    }
+
+    private void createPartition(String table, String key, YearMonth month) {
+        String partition = partitionName(table, month);
+        if (exists(partition)) {
+            return;
+        }
+        String range = key + " >= '" + month.atDay(1) + "' AND " + key + " < '" + month.plusMonths(1).atDay(1) + "'";
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer stranded = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + "_default WHERE " + range, Integer.class);
+            if (stranded == null || stranded == 0) {
+                jdbcTemplate.execute(partitionDdl(table, month));
+                return;
+            }
+            // Rows already in the default partition for this month must move into the new one
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + table + "_default");
+            jdbcTemplate.execute(partitionDdl(table, month));
+            jdbcTemplate.update("INSERT INTO " + table + " SELECT * FROM " + table + "_default WHERE " + range);
+            jdbcTemplate.update("DELETE FROM " + table + "_default WHERE " + range);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + table + "_default DEFAULT");
+            log.info("Moved {} rows of {} from the default partition into {}", stranded, table, partition);
+        });
+    }
+
+    private void retire(String table, String partition) {
+        Path target = archiveDir.resolve(table).resolve(partition + ".csv.gz");
+        try {
+            long rows = exportCsv(partition, target);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+            log.info("Retired partition {} ({} rows) to {}", partition, rows, target);
+        } catch (IOException | RuntimeException e) {
+            // The partition stays attached and is tried again on the next run
+            log.warn("Could not retire partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    private long exportCsv(String partition, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), partition, ".tmp");
+        try {
+            long[] rows = { 0 };
+            try (OutputStream file = Files.newOutputStream(temp);
+                    Writer out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(file, 64 * 1024),
+                            StandardCharsets.UTF_8), 64 * 1024)) {
+                // A transaction lets the driver use a cursor instead of loading the partition
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                        "SELECT * FROM " + partition + " ORDER BY id", resultSet -> {
+                            try {
+                                ResultSetMetaData meta = resultSet.getMetaData();
+                                if (rows[0] == 0) {
+                                    List<String> header = new ArrayList<>();
+                                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                        header.add(meta.getColumnName(i));
+                                    }
+                                    writeCsvRow(out, header);
+                                }
+                                List<String> values = new ArrayList<>();
+                                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                    values.add(resultSet.getString(i));
+                                }
+                                writeCsvRow(out, values);
+                                rows[0]++;
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeCsvRow(Writer out, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            out.write(quote ? '"' + value.replace("\"", "\"\"") + '"' : value);
+        }
+        out.write("\r\n");
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p
+                               JOIN pg_class c ON c.oid = p.partrelid
+                               WHERE c.relname = ?)
+                """, Boolean.class, table));
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname FROM pg_inherits i
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE parent.relname = ?
+                ORDER BY child.relname
+                """, String.class, table);
+    }
+
+    private static String partitionDdl(String table, YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_" + month.format(SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.find()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
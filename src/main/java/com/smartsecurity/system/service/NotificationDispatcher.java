@@ -1,22 +1,312 @@
 package com.smartsecurity.system.service;
 
-import org.springframework.scheduling.annotation.Async;
+import com.smartsecurity.system.dto.NotificationStats;
+import com.smartsecurity.system.dto.PushMessage;
+import com.smartsecurity.system.entity.NotificationDeadLetter;
+import com.smartsecurity.system.repository.NotificationDeadLetterRepository;
+import com.smartsecurity.system.util.AfterCommit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import lombok.RequiredArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Push notification pipeline. Callers enqueue after their transaction commits
+ * and return immediately; a fixed pool of workers drains the bounded queue in
+ * batches through the configured {@link PushSender}. Retryable failures are
+ * re-queued with exponential backoff and anything that still fails ends up in
+ * {@code notification_dead_letters}. On shutdown the queue is drained for up to
+ * {@code notification.drain-timeout-ms} before the rest is dead-lettered.
+ * Queue depth, send latency and message outcomes are published as meters.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class NotificationDispatcher {
 
-    private final NotificationService notificationService;
+    private final PushSender sender;
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long drainTimeoutMillis;
+
+    private final BlockingQueue<Delivery> queue;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Set<Delivery> pendingRetries = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencyTotalMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+
+    private record Delivery(PushMessage message, int attempt, long enqueuedAt) {
+    }
+
+    public NotificationDispatcher(PushSender sender,
+            NotificationDeadLetterRepository deadLetterRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.workers:4}") int workerCount,
+            @Value("${notification.batch-size:500}") int batchSize,
+            @Value("${notification.max-attempts:5}") int maxAttempts,
+            @Value("${notification.backoff-ms:1000}") long backoffMillis,
+            @Value("${notification.drain-timeout-ms:10000}") long drainTimeoutMillis) {
+        this.sender = sender;
+        this.deadLetterRepository = deadLetterRepository;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = Math.max(1, Math.min(batchSize, PushSender.MAX_BATCH_SIZE));
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
 
-    @Async
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "push-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "push-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+
+        this.sendTimer = Timer.builder("notification.send")
+                .description("One batch call to the push sender")
+                .tag("sender", sender.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("notification.delivery")
+                .description("Enqueue to successful send, retries included")
+                .tag("sender", sender.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        registerMeters(meterRegistry);
+    }
+
+    /**
+     * Queues a notification for delivery once the current transaction commits.
+     * Never blocks the caller; when the queue is full the message is dropped
+     * and counted as rejected.
+     */
     public void sendAsync(String token, String title, String body) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        PushMessage message = PushMessage.builder().token(token).title(title).body(body).build();
+        AfterCommit.run(() -> offer(new Delivery(message, 1, System.nanoTime())));
+    }
+
+    public NotificationStats getStats() {
+        long sentCount = sent.sum();
+        return NotificationStats.builder()
+                .sender(sender.name())
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .pendingRetries(pendingRetries.size())
+                .enqueued(enqueued.sum())
+                .rejected(rejected.sum())
+                .sent(sentCount)
+                .retried(retried.sum())
+                .deadLettered(deadLettered.sum())
+                .batches(batches.sum())
+                .averageLatencyMillis(sentCount == 0 ? 0 : (double) latencyTotalMillis.sum() / sentCount)
+                .maxLatencyMillis(maxLatencyMillis.get())
+                .build();
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("notification.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting for a worker")
+                .register(registry);
+        Gauge.builder("notification.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .register(registry);
+        Gauge.builder("notification.retries.pending", pendingRetries, Set::size)
+                .register(registry);
+        Gauge.builder("notification.batches.in_flight", inFlight, AtomicInteger::get)
+                .register(registry);
+        messageCounter(registry, "enqueued", enqueued);
+        messageCounter(registry, "rejected", rejected);
+        messageCounter(registry, "sent", sent);
+        messageCounter(registry, "retried", retried);
+        messageCounter(registry, "dead_lettered", deadLettered);
+    }
+
+    private static void messageCounter(MeterRegistry registry, String outcome, LongAdder adder) {
+        FunctionCounter.builder("notification.messages", adder, LongAdder::sum)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void offer(Delivery delivery) {
+        if (!accepting || !queue.offer(delivery)) {
+            rejected.increment();
+            log.warn("Notification queue full or closed, dropping message for token ending {}",
+                    tail(delivery.message().getToken()));
+            return;
+        }
+        enqueued.increment();
+    }
+
+    private void work() {
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Delivery first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                try {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    deliver(batch);
+                } finally {
+                    batch.clear();
+                    inFlight.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Notification worker failed on a batch", e);
+            }
+        }
+    }
+
+    private void deliver(List<Delivery> batch) {
+        List<PushMessage> messages = batch.stream().map(Delivery::message).toList();
+        List<PushSender.Result> results;
+        long started = System.nanoTime();
+        try {
+            results = sender.send(messages);
+        } catch (Exception e) {
+            results = messages.stream().map(m -> PushSender.Result.retry(e.getMessage())).toList();
+        }
+        sendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        batches.increment();
+
+        int answered = results != null ? results.size() : 0;
+        if (answered != batch.size()) {
+            log.warn("{} sender returned {} results for a batch of {}", sender.name(), answered, batch.size());
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            Delivery delivery = batch.get(i);
+            // A message the sender did not answer for may or may not have gone out; retrying is safer
+            PushSender.Result result = i < answered && results.get(i) != null
+                    ? results.get(i)
+                    : PushSender.Result.retry("no result from sender");
+            if (result.success()) {
+                sent.increment();
+                long latency = TimeUnit.NANOSECONDS.toMillis(now - delivery.enqueuedAt());
+                deliveryTimer.record(now - delivery.enqueuedAt(), TimeUnit.NANOSECONDS);
+                latencyTotalMillis.add(latency);
+                maxLatencyMillis.accumulateAndGet(latency, Math::max);
+            } else if (result.retryable() && delivery.attempt() < maxAttempts && running) {
+                scheduleRetry(delivery);
+            } else {
+                deadLetter(delivery, result.error());
+            }
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery) {
+        retried.increment();
+        Delivery next = new Delivery(delivery.message(), delivery.attempt() + 1, delivery.enqueuedAt());
+        // Exponential backoff with jitter so a flapping FCM isn't hit in lockstep
+        long delay = backoffMillis * (1L << Math.min(delivery.attempt() - 1, 10));
+        delay += ThreadLocalRandom.current().nextLong(Math.max(1, delay / 2));
+        pendingRetries.add(next);
+        retryScheduler.schedule(() -> {
+            if (pendingRetries.remove(next) && !queue.offer(next)) {
+                deadLetter(next, "queue full on retry");
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(Delivery delivery, String error) {
+        deadLettered.increment();
         try {
-            notificationService.sendToToken(token, title, body);
+            deadLetterRepository.save(NotificationDeadLetter.builder()
+                    .token(delivery.message().getToken())
+                    .title(delivery.message().getTitle())
+                    .body(delivery.message().getBody())
+                    .attempts(delivery.attempt())
+                    .error(error != null && error.length() > 1000 ? error.substring(0, 1000) : error)
+                    .failedAt(LocalDateTime.now())
+                    .build());
         } catch (Exception e) {
-            System.out.println("Notification failed: " + e.getMessage());
+            log.error("Could not store dead-lettered notification: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        while ((!queue.isEmpty() || inFlight.get() > 0) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Delivery> leftovers = new ArrayList<>(pendingRetries);
+        queue.drainTo(leftovers);
+        leftovers.forEach(delivery -> deadLetter(delivery, "undelivered at shutdown"));
+        if (!leftovers.isEmpty()) {
+            log.warn("Dead-lettered {} undelivered notifications at shutdown", leftovers.size());
+        }
+    }
+
+    private static String tail(String token) {
+        return token.length() <= 6 ? token : token.substring(token.length() - 6);
     }
 }
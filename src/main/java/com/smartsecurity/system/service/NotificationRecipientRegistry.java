@@ -0,0 +1,144 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.NotificationRecipient;
+import com.smartsecurity.system.entity.User;
+import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.enums.UserStatus;
+import com.smartsecurity.system.repository.UserRepository;
+import com.smartsecurity.system.util.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who can receive push notifications, indexed by role and tenant, so fan-out
+ * needs no database access. Loaded before the web server starts, so no push
+ * is dropped for want of recipients, and kept current by the services that
+ * change users; updates are applied after the changing transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRecipientRegistry implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+
+    private final Map<Integer, NotificationRecipient> byId = new ConcurrentHashMap<>();
+    // role/tenant -> user id -> FCM token, active users with a token only
+    private final Map<Audience, Map<Integer, String>> tokens = new ConcurrentHashMap<>();
+
+    private record Audience(Role role, Long tenantId) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        byId.clear();
+        tokens.clear();
+        userRepository.findAllRecipients().forEach(this::put);
+        log.info("Notification recipient registry loaded {} users", byId.size());
+    }
+
+    /** Records the current state of a user once the caller's transaction commits. */
+    public void refresh(User user) {
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .id(user.getId())
+                .role(user.getRole())
+                .tenantId(user.getTenant() != null ? user.getTenant().getId() : null)
+                .fullName(user.getFullName())
+                .fcmToken(user.getFcmToken())
+                .status(user.getStatus())
+                .build();
+        AfterCommit.run(() -> put(recipient));
+    }
+
+    /** Swaps the FCM token of a known user after commit. */
+    public void updateToken(Integer userId, String fcmToken) {
+        AfterCommit.run(() -> {
+            NotificationRecipient current = byId.get(userId);
+            if (current != null) {
+                put(NotificationRecipient.builder()
+                        .id(current.getId())
+                        .role(current.getRole())
+                        .tenantId(current.getTenantId())
+                        .fullName(current.getFullName())
+                        .fcmToken(fcmToken)
+                        .status(current.getStatus())
+                        .build());
+            }
+        });
+    }
+
+    public void remove(Integer userId) {
+        AfterCommit.run(() -> evict(userId));
+    }
+
+    public void removeTenant(Long tenantId) {
+        AfterCommit.run(() -> byId.values().stream()
+                .filter(r -> tenantId.equals(r.getTenantId()))
+                .map(NotificationRecipient::getId)
+                .toList()
+                .forEach(this::evict));
+    }
+
+    /** Tokens of every active user with the role, regardless of tenant. */
+    public List<String> tokensFor(Role role) {
+        return tokens.entrySet().stream()
+                .filter(e -> e.getKey().role() == role)
+                .flatMap(e -> e.getValue().values().stream())
+                .toList();
+    }
+
+    public List<String> tokensFor(Role role, Long tenantId) {
+        Map<Integer, String> audience = tokens.get(new Audience(role, tenantId));
+        return audience == null ? List.of() : List.copyOf(audience.values());
+    }
+
+    public Optional<String> tokenOf(Integer userId) {
+        NotificationRecipient recipient = byId.get(userId);
+        return recipient != null && isReachable(recipient)
+                ? Optional.of(recipient.getFcmToken())
+                : Optional.empty();
+    }
+
+    public Optional<String> nameOf(Integer userId) {
+        return Optional.ofNullable(byId.get(userId)).map(NotificationRecipient::getFullName);
+    }
+
+    private synchronized void put(NotificationRecipient recipient) {
+        evict(recipient.getId());
+        byId.put(recipient.getId(), recipient);
+        if (isReachable(recipient)) {
+            tokens.computeIfAbsent(new Audience(recipient.getRole(), recipient.getTenantId()),
+                    a -> new ConcurrentHashMap<>())
+                    .put(recipient.getId(), recipient.getFcmToken());
+        }
+    }
+
+    private synchronized void evict(Integer userId) {
+        NotificationRecipient previous = byId.remove(userId);
+        if (previous != null) {
+            Map<Integer, String> audience = tokens.get(new Audience(previous.getRole(), previous.getTenantId()));
+            if (audience != null) {
+                audience.remove(userId);
+            }
+        }
+    }
+
+    private static boolean isReachable(NotificationRecipient recipient) {
+        return recipient.getRole() != null
+                && recipient.getStatus() == UserStatus.ACTIVE
+                && recipient.getFcmToken() != null
+                && !recipient.getFcmToken().isBlank();
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.Occupant;
+import com.smartsecurity.system.entity.Staff;
+import com.smartsecurity.system.entity.Vehicle;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.enums.VehicleStatus;
+import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
+import com.smartsecurity.system.repository.StaffRepository;
+import com.smartsecurity.system.repository.VehicleRepository;
+import com.smartsecurity.system.repository.VisitorRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Who is inside the building right now, kept in memory and partitioned by
+ * tenant. Loaded from the database once before the web server starts and then
+ * maintained from committed {@link GateEvent}s, so reads never hit the DB.
+ * Staff belong to no tenant and live in the {@link #NO_TENANT} partition.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OccupancyIndex implements SmartInitializingSingleton {
+
+    public static final long NO_TENANT = 0L;
+
+    private final VisitorRepository visitorRepository;
+    private final VehicleRepository vehicleRepository;
+    private final StaffRepository staffRepository;
+
+    private final Map<Long, Map<OccupantKey, Occupant>> partitions = new ConcurrentHashMap<>();
+    // Where each occupant was filed, so leaving works even if its tenant changed meanwhile
+    private final Map<OccupantKey, Long> locations = new ConcurrentHashMap<>();
+
+    private record OccupantKey(OccupantType type, Long id) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        partitions.clear();
+        locations.clear();
+
+        visitorRepository.findAllCheckedInSummaries().forEach(v -> enter(Occupant.builder()
+                .type(OccupantType.VISITOR)
+                .id(v.getId())
+                .tenantId(v.getTenantId())
+                .label(v.getVisitorName())
+                .since(v.getCheckInTime())
+                .build()));
+
+        for (Vehicle vehicle : vehicleRepository.findByStatus(VehicleStatus.CHECKED_IN)) {
+            enter(Occupant.builder()
+                    .type(OccupantType.VEHICLE)
+                    .id(vehicle.getId())
+                    .tenantId(vehicle.getTenant() != null ? vehicle.getTenant().getId() : null)
+                    .label(vehicle.getVehicleNumber())
+                    .since(vehicle.getCheckInTime())
+                    .build());
+        }
+
+        for (Staff staff : staffRepository.findByStatus(VisitStatus.CHECKED_IN)) {
+            enter(Occupant.builder()
+                    .type(OccupantType.STAFF)
+                    .id(staff.getId())
+                    .label(staff.getName())
+                    .since(staff.getCheckInTime())
+                    .build());
+        }
+
+        log.info("Occupancy index loaded: {} occupant(s) across {} partition(s)",
+                locations.size(), partitions.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGateEvent(GateEvent event) {
+        switch (event.getType()) {
+            case VISITOR_CHECKED_IN, VEHICLE_CHECKED_IN, STAFF_CHECKED_IN -> enter(Occupant.builder()
+                    .type(event.getType().getSubject())
+                    .id(event.getSubjectId())
+                    .tenantId(event.getTenantId())
+                    .label(event.getLabel())
+                    .since(event.getOccurredAt())
+                    .build());
+            case VISITOR_CHECKED_OUT, VISITOR_DELETED, VEHICLE_CHECKED_OUT, VEHICLE_DELETED,
+                    STAFF_CHECKED_OUT, STAFF_DELETED ->
+                leave(event.getType().getSubject(), event.getSubjectId());
+            case VEHICLE_UPDATED -> refile(event);
+            default -> {
+            }
+        }
+    }
+
+    public List<Occupant> inside(Long tenantId, OccupantType type) {
+        return occupants(tenantId)
+                .filter(o -> type == null || o.getType() == type)
+                .sorted(Comparator.comparing(Occupant::getSince,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    public Map<OccupantType, Long> counts(Long tenantId) {
+        Map<OccupantType, Long> counts = new EnumMap<>(OccupantType.class);
+        for (OccupantType type : OccupantType.values()) {
+            counts.put(type, 0L);
+        }
+        occupants(tenantId).forEach(o -> counts.merge(o.getType(), 1L, Long::sum));
+        return counts;
+    }
+
+    private Stream<Occupant> occupants(Long tenantId) {
+        if (tenantId != null) {
+            return partitions.getOrDefault(tenantId, Map.of()).values().stream();
+        }
+        return partitions.values().stream().map(Map::values).flatMap(Collection::stream);
+    }
+
+    private void enter(Occupant occupant) {
+        OccupantKey key = new OccupantKey(occupant.getType(), occupant.getId());
+        long partition = occupant.getTenantId() != null ? occupant.getTenantId() : NO_TENANT;
+
+        leave(occupant.getType(), occupant.getId());
+        partitions.computeIfAbsent(partition, p -> new ConcurrentHashMap<>()).put(key, occupant);
+        locations.put(key, partition);
+    }
+
+    // A vehicle inside can be edited or moved to another tenant; keep its entry time
+    private void refile(GateEvent event) {
+        OccupantKey key = new OccupantKey(event.getType().getSubject(), event.getSubjectId());
+        Long partition = locations.get(key);
+        Occupant current = partition != null ? partitions.getOrDefault(partition, Map.of()).get(key) : null;
+        if (current == null) {
+            return;
+        }
+        enter(Occupant.builder()
+                .type(current.getType())
+                .id(current.getId())
+                .tenantId(event.getTenantId())
+                .label(event.getLabel())
+                .since(current.getSince())
+                .build());
+    }
+
+    private void leave(OccupantType type, Long id) {
+        OccupantKey key = new OccupantKey(type, id);
+        Long partition = locations.remove(key);
+        if (partition != null) {
+            Map<OccupantKey, Occupant> occupants = partitions.get(partition);
+            if (occupants != null) {
+                occupants.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.smartsecurity.system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed photo store on the local filesystem. Each photo is saved
+ * once under its SHA-256 hash ({@code ab/cd/abcd...}); entities keep only the
+ * hash, so the same image referenced by a visitor and its history rows is
+ * stored a single time.
+ */
+@Slf4j
+@Service
+public class PhotoStorageService {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EXTERNAL_URL = Pattern.compile("(?i)^https?://\\S+$");
+
+    private final Path root;
+
+    public PhotoStorageService(@Value("${photo.storage.dir:./data/photos}") String storageDir) throws IOException {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        log.info("Photo store at {}", root);
+    }
+
+    /**
+     * True for an http(s) link to an image hosted elsewhere. Those are kept as
+     * given in {@code imageUrl}; only uploaded images go into the store.
+     */
+    public static boolean isExternalUrl(String value) {
+        return value != null && EXTERNAL_URL.matcher(value.trim()).matches();
+    }
+
+    /**
+     * Stores a base64 image (optionally a {@code data:} URI) and returns its hash,
+     * or {@code null} when no image was supplied.
+     */
+    public String storeBase64(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+
+        String payload = encoded.trim();
+        if (payload.startsWith("data:")) {
+            int comma = payload.indexOf(',');
+            if (comma < 0) {
+                throw new RuntimeException("Invalid image data");
+            }
+            payload = payload.substring(comma + 1);
+        }
+
+        byte[] bytes;
+        try {
+            // Strict decoder: the MIME one silently skips anything that isn't base64, URLs included
+            bytes = Base64.getDecoder().decode(WHITESPACE.matcher(payload).replaceAll(""));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid image data");
+        }
+        if (bytes.length == 0) {
+            throw new RuntimeException("Invalid image data");
+        }
+        return store(bytes);
+    }
+
+    public String store(byte[] bytes) {
+        String hash = sha256(bytes);
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // another request stored the same content first
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store photo " + hash, e);
+        }
+        return hash;
+    }
+
+    public Optional<Path> resolve(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /** Detects the image type from its leading bytes; the store keeps no metadata. */
+    public MediaType contentType(Path path) {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(head, 0, head.length);
+        } catch (IOException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (read >= 4 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return MediaType.IMAGE_PNG;
+        }
+        if (read >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return MediaType.IMAGE_GIF;
+        }
+        if (read >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
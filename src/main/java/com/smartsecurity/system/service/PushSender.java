@@ -0,0 +1,37 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.PushMessage;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of push messages. Implementations are chosen with
+ * {@code notification.sender}: {@code firebase} in production, {@code fake}
+ * for local runs, tests and load generation.
+ */
+public interface PushSender {
+
+    int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Sends the batch and returns one result per message, in the same order.
+     */
+    List<Result> send(List<PushMessage> batch);
+
+    String name();
+
+    record Result(boolean success, boolean retryable, String error) {
+
+        public static Result ok() {
+            return new Result(true, false, null);
+        }
+
+        public static Result retry(String error) {
+            return new Result(false, true, error);
+        }
+
+        public static Result fail(String error) {
+            return new Result(false, false, error);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.smartsecurity.system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartsecurity.system.config.SchedulingConfig;
+import com.smartsecurity.system.entity.RefreshToken;
+import com.smartsecurity.system.repository.RefreshTokenRepository;
+import com.smartsecurity.system.util.AfterCommit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 of each token is
+ * stored; recently seen rows are cached by hash so a refresh normally costs a
+ * single conditional UPDATE. Presenting a token that was already rotated is
+ * treated as theft and revokes every token of that login.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final Cache<String, RefreshToken> byHash;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+            @Value("${jwt.refresh-expiration-days:30}") long lifetimeDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = Duration.ofDays(lifetimeDays);
+        this.byHash = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+    }
+
+    /** Starts a new token family for a fresh login. */
+    @Transactional
+    public String issue(Integer userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one in the same family and returns
+     * the owning user id together with the new token.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        String hash = hash(rawToken);
+        RefreshToken current = byHash.getIfPresent(hash);
+        if (current == null) {
+            current = refreshTokenRepository.findByTokenHash(hash)
+                    .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            log.warn("Refresh token reuse detected for user {}, revoking its session", current.getUserId());
+            revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        evict(List.of(hash));
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /** Ends the login the token belongs to. Unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Integer userId) {
+        List<String> hashes = refreshTokenRepository.findHashesByUser(userId);
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+        evict(hashes);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 30 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    public record Rotation(Integer userId, String refreshToken) {
+    }
+
+    private String issue(Integer userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken saved = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .userId(userId)
+                .familyId(familyId)
+                .createdAt(now)
+                .expiresAt(now.plus(lifetime))
+                .build());
+        AfterCommit.run(() -> byHash.put(saved.getTokenHash(), saved));
+        return raw;
+    }
+
+    private void revokeFamily(String familyId) {
+        List<String> hashes = refreshTokenRepository.findHashesByFamily(familyId);
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        evict(hashes);
+    }
+
+    private void evict(List<String> hashes) {
+        byHash.invalidateAll(hashes);
+        AfterCommit.run(() -> byHash.invalidateAll(hashes));
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartsecurity.system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartsecurity.system.dto.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache for dashboard and chart responses, keyed by endpoint and
+ * time bucket. Concurrent misses on the same key wait for a single
+ * computation instead of each running the queries. Entries are bounded by
+ * a staleness limit and dropped as soon as their bucket rolls over.
+ */
+@Component
+public class ReportCache {
+
+    private final Cache<Key, Object> responses;
+    private final long bucketMillis;
+    private final AtomicLong currentBucket = new AtomicLong();
+
+    private record Key(String endpoint, LocalDate day, long bucket) {
+    }
+
+    public ReportCache(@Value("${reports.cache.bucket-seconds:30}") long bucketSeconds,
+            @Value("${reports.cache.max-staleness-seconds:30}") long maxStalenessSeconds,
+            @Value("${reports.cache.max-size:1000}") long maxSize) {
+        this.bucketMillis = Duration.ofSeconds(bucketSeconds).toMillis();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(maxStalenessSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached value for {@code endpoint} in the current bucket,
+     * computing it once if absent. The endpoint string must include every
+     * parameter that changes the response.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Supplier<T> loader) {
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        rollOver(bucket);
+        // Charts are relative to today, so a date change always misses
+        return (T) responses.get(new Key(endpoint, LocalDate.now(), bucket), key -> loader.get());
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return CacheStats.of("reports", responses.estimatedSize(), responses.stats());
+    }
+
+    private void rollOver(long bucket) {
+        long previous = currentBucket.get();
+        if (bucket > previous && currentBucket.compareAndSet(previous, bucket)) {
+            responses.asMap().keySet().removeIf(key -> key.bucket() < bucket);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.smartsecurity.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsecurity.system.dto.VisitorHistorySummary;
+import com.smartsecurity.system.entity.StaffHistory;
+import com.smartsecurity.system.entity.VehicleHistory;
+import com.smartsecurity.system.enums.ExportFormat;
+import com.smartsecurity.system.repository.StaffHistoryRepository;
+import com.smartsecurity.system.repository.VehicleHistoryRepository;
+import com.smartsecurity.system.repository.VisitorHistoryRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams complete history ranges as CSV or NDJSON. Rows come from a
+ * forward-only JDBC cursor inside a read-only transaction and are written
+ * (and detached) one at a time, so memory use does not depend on the size
+ * of the range. Output is optionally gzipped as it is written.
+ */
+@Slf4j
+@Service
+public class ReportExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Digits with an optional sign and phone-number punctuation, no letters or operators
+    private static final Pattern PLAIN_NUMBER = Pattern.compile("[+-]?[0-9][0-9 ().-]*");
+
+    private static final List<Column<VisitorHistorySummary>> VISITOR_COLUMNS = List.of(
+            new Column<>("id", VisitorHistorySummary::getId),
+            new Column<>("visitorId", VisitorHistorySummary::getVisitorId),
+            new Column<>("visitorName", VisitorHistorySummary::getVisitorName),
+            new Column<>("mobileNumber", VisitorHistorySummary::getMobileNumber),
+            new Column<>("visitType", VisitorHistorySummary::getVisitType),
+            new Column<>("status", VisitorHistorySummary::getStatus),
+            new Column<>("visitDate", VisitorHistorySummary::getVisitDate),
+            new Column<>("checkInTime", VisitorHistorySummary::getCheckInTime),
+            new Column<>("checkOutTime", VisitorHistorySummary::getCheckOutTime),
+            new Column<>("rejectionRemarks", VisitorHistorySummary::getRejectionRemarks),
+            new Column<>("tenantId", VisitorHistorySummary::getTenantId),
+            new Column<>("companyName", VisitorHistorySummary::getCompanyName),
+            new Column<>("createdBy", VisitorHistorySummary::getCreatedBy),
+            new Column<>("approvedBy", VisitorHistorySummary::getApprovedBy));
+
+    private static final List<Column<VehicleHistory>> VEHICLE_COLUMNS = List.of(
+            new Column<>("id", VehicleHistory::getId),
+            new Column<>("vehicleId", VehicleHistory::getVehicleId),
+            new Column<>("vehicleNumber", VehicleHistory::getVehicleNumber),
+            new Column<>("vehicleType", VehicleHistory::getVehicleType),
+            new Column<>("driverName", VehicleHistory::getDriverName),
+            new Column<>("company", VehicleHistory::getCompany),
+            new Column<>("tenantId", h -> h.getTenant() != null ? h.getTenant().getId() : null),
+            new Column<>("purpose", VehicleHistory::getPurpose),
+            new Column<>("status", VehicleHistory::getStatus),
+            new Column<>("userType", VehicleHistory::getUserType),
+            new Column<>("checkInTime", VehicleHistory::getCheckInTime),
+            new Column<>("checkOutTime", VehicleHistory::getCheckOutTime),
+            new Column<>("createdBy", VehicleHistory::getCreatedBy));
+
+    private static final List<Column<StaffHistory>> STAFF_COLUMNS = List.of(
+            new Column<>("id", StaffHistory::getId),
+            new Column<>("staffId", StaffHistory::getStaffId),
+            new Column<>("employeeCode", StaffHistory::getEmployeeCode),
+            new Column<>("name", StaffHistory::getName),
+            new Column<>("mobileNumber", StaffHistory::getMobileNumber),
+            new Column<>("status", StaffHistory::getStatus),
+            new Column<>("checkInTime", StaffHistory::getCheckInTime),
+            new Column<>("checkOutTime", StaffHistory::getCheckOutTime),
+            new Column<>("createdBy", StaffHistory::getCreatedBy));
+
+    private final VisitorHistoryRepository visitorHistoryRepository;
+    private final VehicleHistoryRepository vehicleHistoryRepository;
+    private final StaffHistoryRepository staffHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReportExporter(VisitorHistoryRepository visitorHistoryRepository,
+            VehicleHistoryRepository vehicleHistoryRepository,
+            StaffHistoryRepository staffHistoryRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.visitorHistoryRepository = visitorHistoryRepository;
+        this.vehicleHistoryRepository = vehicleHistoryRepository;
+        this.staffHistoryRepository = staffHistoryRepository;
+        this.objectMapper = objectMapper;
+        // The body is written on an async thread, so the cursor needs its own transaction there
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    public StreamingResponseBody exportVisitors(ExportFormat format, boolean gzip, LocalDate startDate,
+            LocalDate endDate, Long tenantId) {
+        // Same defaults as the paged report
+        LocalDate start = startDate != null ? startDate : LocalDate.now().minusMonths(3);
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        // Constructor projection: nothing is managed, so nothing to detach
+        return body(format, gzip, VISITOR_COLUMNS, false,
+                () -> visitorHistoryRepository.streamByFilters(tenantId, start, end));
+    }
+
+    public StreamingResponseBody exportVehicles(ExportFormat format, boolean gzip, LocalDate startDate,
+            LocalDate endDate, Long tenantId) {
+        LocalDateTime start = startOf(startDate);
+        LocalDateTime end = endOf(endDate);
+        return body(format, gzip, VEHICLE_COLUMNS, true,
+                () -> vehicleHistoryRepository.streamByFilters(tenantId, start, end));
+    }
+
+    public StreamingResponseBody exportStaff(ExportFormat format, boolean gzip, LocalDate startDate,
+            LocalDate endDate) {
+        LocalDateTime start = startOf(startDate);
+        LocalDateTime end = endOf(endDate);
+        return body(format, gzip, STAFF_COLUMNS, true,
+                () -> staffHistoryRepository.streamByFilters(start, end));
+    }
+
+    private <T> StreamingResponseBody body(ExportFormat format, boolean gzip, List<Column<T>> columns,
+            boolean detach, Supplier<Stream<T>> rows) {
+        return out -> {
+            long started = System.currentTimeMillis();
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            long count;
+            try {
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, columns.stream().map(Column::name).toList());
+                }
+                count = readOnlyTransaction.execute(status -> {
+                    long written = 0;
+                    try (Stream<T> stream = rows.get()) {
+                        for (T row : (Iterable<T>) stream::iterator) {
+                            write(writer, format, columns, row);
+                            if (detach) {
+                                entityManager.detach(row);
+                            }
+                            written++;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return written;
+                });
+            } catch (UncheckedIOException e) {
+                // Usually the client went away mid-download
+                throw e.getCause();
+            }
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            log.info("Exported {} rows as {} in {} ms", count, format, System.currentTimeMillis() - started);
+        };
+    }
+
+    private <T> void write(Writer writer, ExportFormat format, List<Column<T>> columns, T row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            for (Column<T> column : columns) {
+                json.put(column.name(), column.value().apply(row));
+            }
+            writer.write(objectMapper.writeValueAsString(json));
+            writer.write('\n');
+            return;
+        }
+        writeCsvRow(writer, columns.stream().map(column -> column.value().apply(row)).toList());
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(csvField(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        // Keep spreadsheets from evaluating user-entered text as a formula. Signed
+        // numbers and phone numbers (+91 98765 43210) can't call anything, so they stay as-is
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0
+                && !PLAIN_NUMBER.matcher(value).matches()) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
+
+    private static LocalDateTime endOf(LocalDate date) {
+        return date != null ? date.atTime(LocalTime.MAX) : LocalDateTime.now();
+    }
+}
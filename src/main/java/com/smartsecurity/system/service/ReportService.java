@@ -1,17 +1,21 @@
 package com.smartsecurity.system.service;
 
-import com.smartsecurity.system.enums.VehicleStatus;
-import com.smartsecurity.system.enums.VisitStatus;
-import com.smartsecurity.system.repository.TenantRepository;
+import com.smartsecurity.system.dto.CursorPage;
+import com.smartsecurity.system.dto.VisitorHistorySummary;
+import com.smartsecurity.system.exception.ResourceNotFoundException;
+import com.smartsecurity.system.repository.DailyRollupRepository;
 import com.smartsecurity.system.repository.VehicleHistoryRepository;
-import com.smartsecurity.system.repository.VehicleRepository;
 import com.smartsecurity.system.repository.VisitorHistoryRepository;
 import com.smartsecurity.system.repository.StaffHistoryRepository;
-import com.smartsecurity.system.repository.VisitorRepository;
+import com.smartsecurity.system.entity.DailyRollup;
+import com.smartsecurity.system.entity.Tenant;
 import com.smartsecurity.system.entity.VehicleHistory;
 import com.smartsecurity.system.entity.VisitorHistory;
 
 import com.smartsecurity.system.entity.StaffHistory;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.util.KeysetCursor;
+import com.smartsecurity.system.util.PageRequests;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -25,172 +29,162 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.time.Month;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.time.DayOfWeek;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
-        private final VisitorRepository visitorRepository;
-        private final VehicleRepository vehicleRepository;
-        private final TenantRepository tenantRepository;
         private final VehicleHistoryRepository vehicleHistoryRepository;
         private final VisitorHistoryRepository visitorHistoryRepository;
         private final StaffHistoryRepository staffHistoryRepository;
+        private final DashboardCounters dashboardCounters;
+        private final DailyRollupRepository dailyRollupRepository;
+        private final TenantDirectory tenantDirectory;
+        private final ReportCache reportCache;
 
-        public Map<String, Object> getDashboardStats() {
-                Map<String, Object> stats = new HashMap<>();
-                stats.put("totalTenants", tenantRepository.count());
-                stats.put("totalVehicles", vehicleRepository.count());
-                List<VisitStatus> activeStatuses = List.of(VisitStatus.CHECKED_IN,
-                                VisitStatus.CHECKED_OUT);
-                stats.put("visitorsToday", visitorRepository.countByVisitDateAndStatusIn(
-                                LocalDate.now(),
-                                activeStatuses));
-                stats.put("vehiclesInside",
-                                vehicleRepository.countByStatus(VehicleStatus.CHECKED_IN));
-                return stats;
-        }
+        private final HistoryArchive historyArchive;
 
-        // Visitor Chart
+        private static final int MAX_CHART_DAYS = 366;
+        // Dictionary-encoded archive columns; grouping by free text is not offered
+        private static final Set<String> ARCHIVE_GROUP_COLUMNS = Set.of(
+                        "status", "tenantId", "companyName", "company", "visitType", "vehicleType", "userType");
 
-        public Map<String, Object> getVisitorCharts() {
+        // Cached responses are shared between callers, so they are read-only
 
-                Map<String, Object> response = new HashMap<>();
+        public Map<String, Object> getDashboardStats() {
+                return reportCache.get("dashboard", () -> {
+                        Map<String, Object> stats = new HashMap<>();
+                        stats.put("totalTenants", dashboardCounters.totalTenants());
+                        stats.put("totalVehicles", dashboardCounters.totalVehicles());
+                        stats.put("visitorsToday", dashboardCounters.visitorsOn(LocalDate.now()));
+                        stats.put("vehiclesInside", dashboardCounters.vehiclesInside());
+                        return Collections.unmodifiableMap(stats);
+                });
+        }
 
-                response.put("5D", getDailyVisitors());
-                response.put("1M", getWeeklyVisitors());
-                response.put("6M", getMonthlyVisitors());
+        // Charts, served from daily_rollups: one small range query per chart
 
-                return response;
+        public Map<String, Object> getVisitorCharts(Long tenantId) {
+                return reportCache.get("charts/visitors/" + tenantId,
+                                () -> getCharts(OccupantType.VISITOR, tenantId));
         }
 
-        private List<Map<String, Object>> getDailyVisitors() {
+        public Map<String, Object> getVehicleCharts(Long tenantId) {
+                return reportCache.get("charts/vehicles/" + tenantId,
+                                () -> getCharts(OccupantType.VEHICLE, tenantId));
+        }
 
-                LocalDate end = LocalDate.now();
-                LocalDate start = end.minusDays(4); // last 5 days including today
+        /** One entry per day in {@code from..to}, zero-filled. */
+        public List<Map<String, Object>> getDailyChart(OccupantType subject, LocalDate from, LocalDate to,
+                        Long tenantId) {
+                checkRange(from, to);
+                return dailyPoints(loadDaily(subject, from, to, tenantId), from, to);
+        }
 
-                // DB result → Map<LocalDate, Count>
-                Map<LocalDate, Long> dbData = visitorRepository
-                                .countDailyVisitors(start)
-                                .stream()
-                                .collect(Collectors.toMap(
-                                                r -> (LocalDate) r[0],
-                                                r -> ((Number) r[1]).longValue()));
+        /** Totals per tenant and status over {@code from..to}, largest tenant first. */
+        public List<Map<String, Object>> getTenantBreakdown(OccupantType subject, LocalDate from, LocalDate to) {
+                checkRange(from, to);
+                Map<Long, Map<String, Long>> byTenant = new HashMap<>();
+                for (Object[] row : dailyRollupRepository.sumByTenantAndStatus(subject.name(), from, to)) {
+                        byTenant.computeIfAbsent((Long) row[0], id -> new TreeMap<>())
+                                        .put((String) row[1], ((Number) row[2]).longValue());
+                }
 
                 List<Map<String, Object>> result = new ArrayList<>();
-
-                for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
-
+                byTenant.forEach((tenantId, statuses) -> {
+                        boolean none = tenantId == DailyRollup.NO_TENANT;
                         Map<String, Object> map = new HashMap<>();
-                        map.put("date", date.toString());
-                        map.put("value", dbData.getOrDefault(date, 0L));
-
+                        map.put("tenantId", none ? null : tenantId);
+                        map.put("companyName", none ? null
+                                        : tenantDirectory.findById(tenantId).map(Tenant::getCompanyName).orElse(null));
+                        map.put("byStatus", statuses);
+                        map.put("value", statuses.values().stream().mapToLong(Long::longValue).sum());
                         result.add(map);
-                }
-
+                });
+                result.sort(Comparator.comparingLong((Map<String, Object> m) -> (Long) m.get("value")).reversed());
                 return result;
         }
 
-        private List<Map<String, Object>> getWeeklyVisitors() {
+        // Long ranges, answered from the columnar history archive instead of Postgres
 
-                LocalDate today = LocalDate.now();
-
-                // current week start (Monday)
-                LocalDate endWeekStart = today
-                                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-
-                // go back 3 weeks → total = 4 weeks
-                LocalDate startWeekStart = endWeekStart.minusWeeks(3);
-
-                Map<LocalDate, Long> dbData = visitorRepository
-                                .countWeeklyVisitors(startWeekStart)
-                                .stream()
-                                .collect(Collectors.toMap(
-                                                r -> (LocalDate) r[0],
-                                                r -> ((Number) r[1]).longValue()));
-
-                List<Map<String, Object>> result = new ArrayList<>();
-
-                for (LocalDate weekStart = startWeekStart; !weekStart.isAfter(endWeekStart); weekStart = weekStart
-                                .plusWeeks(1)) {
-
-                        LocalDate weekEnd = weekStart.plusDays(6);
-
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("week", weekStart + " - " + weekEnd);
-                        map.put("value", dbData.getOrDefault(weekStart, 0L));
+        /** Rows per day over archived days; {@code missingDays} lists days not archived yet. */
+        public Map<String, Object> getArchivedDailyCounts(HistoryArchive.Table table, LocalDate from, LocalDate to,
+                        Long tenantId) {
+                if (from == null || to == null || to.isBefore(from)) {
+                        throw new RuntimeException("A valid from/to date range is required");
+                }
+                Map<LocalDate, Long> perDay = historyArchive.dailyCounts(table, from, to, tenantId);
 
-                        result.add(map);
+                List<String> missing = new ArrayList<>();
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                        if (!perDay.containsKey(date)) {
+                                missing.add(date.toString());
+                        }
                 }
 
-                return result;
+                Map<String, Object> response = new HashMap<>();
+                response.put("days", dailyPoints(perDay, from, to));
+                response.put("total", perDay.values().stream().mapToLong(Long::longValue).sum());
+                response.put("missingDays", missing);
+                return response;
         }
 
-        private List<Map<String, Object>> getMonthlyVisitors() {
-
-                // last 6 months including current
-                YearMonth end = YearMonth.now();
-                YearMonth start = end.minusMonths(5);
-
-                // DB result → Map<YearMonth, Count>
-                Map<YearMonth, Long> dbData = visitorRepository
-                                .countMonthlyVisitors(start.atDay(1))
-                                .stream()
-                                .collect(Collectors.toMap(
-                                                r -> YearMonth.of(
-                                                                ((Number) r[0]).intValue(),
-                                                                ((Number) r[1]).intValue()),
-                                                r -> ((Number) r[2]).longValue()));
-
-                // Final result (always 6 entries)
-                List<Map<String, Object>> result = new ArrayList<>();
-
-                for (YearMonth ym = start; !ym.isAfter(end); ym = ym.plusMonths(1)) {
-
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("month", ym.toString()); // 2026-01
-                        map.put("value", dbData.getOrDefault(ym, 0L));
-
-                        result.add(map);
+        public Map<String, Long> getArchivedBreakdown(HistoryArchive.Table table, String column, LocalDate from,
+                        LocalDate to) {
+                if (!ARCHIVE_GROUP_COLUMNS.contains(column)) {
+                        throw new RuntimeException("Cannot group archived rows by " + column);
                 }
-
-                return result;
+                if (from == null || to == null || to.isBefore(from)) {
+                        throw new RuntimeException("A valid from/to date range is required");
+                }
+                return historyArchive.countBy(table, column, from, to);
         }
 
-        // vehicle chart
-        public Map<String, Object> getVehicleCharts() {
+        private Map<String, Object> getCharts(OccupantType subject, Long tenantId) {
 
-                Map<String, Object> response = new HashMap<>();
+                LocalDate today = LocalDate.now();
+                // last 5 days, last 4 weeks (from Monday), last 6 months including current
+                LocalDate dailyStart = today.minusDays(4);
+                LocalDate endWeekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                LocalDate startWeekStart = endWeekStart.minusWeeks(3);
+                YearMonth endMonth = YearMonth.from(today);
+                YearMonth startMonth = endMonth.minusMonths(5);
 
-                response.put("5D", getDailyVehicles());
-                response.put("1M", getWeeklyVehicles());
-                response.put("6M", getMonthlyVehicles());
+                // The 6M window always covers the other two
+                Map<LocalDate, Long> perDay = loadDaily(subject, startMonth.atDay(1), today, tenantId);
 
-                return response;
+                Map<String, Object> response = new HashMap<>();
+                response.put("5D", dailyPoints(perDay, dailyStart, today));
+                response.put("1M", weeklyPoints(perDay, startWeekStart, endWeekStart));
+                response.put("6M", monthlyPoints(perDay, startMonth, endMonth));
+                return Collections.unmodifiableMap(response);
         }
 
-        private List<Map<String, Object>> getDailyVehicles() {
-
-                LocalDate end = LocalDate.now();
-                LocalDate start = end.minusDays(4); // last 5 days
-
-                // DB result → Map<LocalDate, Count>
-                Map<LocalDate, Long> dbData = vehicleRepository
-                                .countDailyVehicles(start.atStartOfDay())
+        private Map<LocalDate, Long> loadDaily(OccupantType subject, LocalDate from, LocalDate to, Long tenantId) {
+                return dailyRollupRepository.sumByDay(subject.name(), from, to, tenantId)
                                 .stream()
                                 .collect(Collectors.toMap(
                                                 r -> toLocalDate(r[0]),
                                                 r -> ((Number) r[1]).longValue()));
+        }
+
+        static List<Map<String, Object>> dailyPoints(Map<LocalDate, Long> perDay, LocalDate start,
+                        LocalDate end) {
 
                 List<Map<String, Object>> result = new ArrayList<>();
 
@@ -198,7 +192,7 @@ public class ReportService {
 
                         Map<String, Object> map = new HashMap<>();
                         map.put("date", date.toString());
-                        map.put("value", dbData.getOrDefault(date, 0L));
+                        map.put("value", perDay.getOrDefault(date, 0L));
 
                         result.add(map);
                 }
@@ -206,24 +200,12 @@ public class ReportService {
                 return result;
         }
 
-        private List<Map<String, Object>> getWeeklyVehicles() {
-
-                LocalDate today = LocalDate.now();
-
-                // current week (Monday)
-                LocalDate endWeekStart = today
-                                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-
-                // last 4 weeks only
-                LocalDate startWeekStart = endWeekStart.minusWeeks(3);
+        static List<Map<String, Object>> weeklyPoints(Map<LocalDate, Long> perDay, LocalDate startWeekStart,
+                        LocalDate endWeekStart) {
 
-                // DB result → Map<weekStart, count>
-                Map<LocalDate, Long> dbData = vehicleRepository
-                                .countWeeklyVehicles(startWeekStart.atStartOfDay())
-                                .stream()
-                                .collect(Collectors.toMap(
-                                                r -> toLocalDate(r[0]),
-                                                r -> ((Number) r[1]).longValue()));
+                Map<LocalDate, Long> perWeek = new HashMap<>();
+                perDay.forEach((date, count) -> perWeek.merge(
+                                date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), count, Long::sum));
 
                 List<Map<String, Object>> result = new ArrayList<>();
 
@@ -234,7 +216,7 @@ public class ReportService {
 
                         Map<String, Object> map = new HashMap<>();
                         map.put("week", weekStart + " - " + weekEnd);
-                        map.put("value", dbData.getOrDefault(weekStart, 0L));
+                        map.put("value", perWeek.getOrDefault(weekStart, 0L));
 
                         result.add(map);
                 }
@@ -242,7 +224,36 @@ public class ReportService {
                 return result;
         }
 
-        private LocalDate toLocalDate(Object value) {
+        static List<Map<String, Object>> monthlyPoints(Map<LocalDate, Long> perDay, YearMonth start,
+                        YearMonth end) {
+
+                Map<YearMonth, Long> perMonth = new HashMap<>();
+                perDay.forEach((date, count) -> perMonth.merge(YearMonth.from(date), count, Long::sum));
+
+                // Always one entry per month
+                List<Map<String, Object>> result = new ArrayList<>();
+
+                for (YearMonth ym = start; !ym.isAfter(end); ym = ym.plusMonths(1)) {
+
+                        Map<String, Object> map = new HashMap<>();
+                        map.put("month", ym.toString()); // 2026-01
+                        map.put("value", perMonth.getOrDefault(ym, 0L));
+                        result.add(map);
+                }
+
+                return result;
+        }
+
+        private static void checkRange(LocalDate from, LocalDate to) {
+                if (from == null || to == null || to.isBefore(from)) {
+                        throw new RuntimeException("A valid from/to date range is required");
+                }
+                if (ChronoUnit.DAYS.between(from, to) >= MAX_CHART_DAYS) {
+                        throw new RuntimeException("Chart range cannot exceed " + MAX_CHART_DAYS + " days");
+                }
+        }
+
+        static LocalDate toLocalDate(Object value) {
 
                 if (value instanceof LocalDate ld) {
                         return ld;
@@ -300,33 +311,14 @@ public class ReportService {
                                 "Unsupported date type: " + value + " (" + value.getClass() + ")");
         }
 
-        private List<Map<String, Object>> getMonthlyVehicles() {
-
-                YearMonth end = YearMonth.now();
-                YearMonth start = end.minusMonths(5);
-
-                Map<YearMonth, Long> dbData = vehicleRepository
-                                .countMonthlyVehicles(start.atDay(1).atStartOfDay())
-                                .stream()
-                                .collect(Collectors.toMap(
-                                                r -> YearMonth.parse((String) r[0]),
-                                                r -> ((Number) r[1]).longValue()));
-
-                List<Map<String, Object>> result = new ArrayList<>();
-
-                for (YearMonth ym = start; !ym.isAfter(end); ym = ym.plusMonths(1)) {
-
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("month", ym.toString());
-                        map.put("value", dbData.getOrDefault(ym, 0L));
-                        result.add(map);
-                }
-
-                return result;
+        @Transactional(readOnly = true)
+        public VisitorHistory getVisitorHistoryEntry(Long id) {
+                return visitorHistoryRepository.findById(id)
+                                .orElseThrow(() -> new ResourceNotFoundException("Visitor history not found"));
         }
 
         @Transactional(readOnly = true)
-        public Page<VisitorHistory> getVisitorReport(LocalDate startDate, LocalDate endDate, Long tenantId, int page,
+        public Page<VisitorHistorySummary> getVisitorReport(LocalDate startDate, LocalDate endDate, Long tenantId, int page,
                         int size) {
                 // Defensive pagination
                 int safePage = Math.max(page, 0);
@@ -416,4 +408,68 @@ public class ReportService {
                                 pageable);
         }
 
+        @Transactional(readOnly = true)
+        public CursorPage<VisitorHistorySummary> getVisitorReportByCursor(LocalDate startDate, LocalDate endDate,
+                        Long tenantId, String cursor, int size) {
+                LocalDate start = startDate != null ? startDate : LocalDate.now().minusMonths(3);
+                LocalDate end = endDate != null ? endDate : LocalDate.now();
+                KeysetCursor after = KeysetCursor.decode(cursor);
+
+                List<VisitorHistorySummary> rows = visitorHistoryRepository.findByFiltersAfter(
+                                tenantId,
+                                start,
+                                end,
+                                after.date(),
+                                after.id(),
+                                PageRequests.keysetLimit(size));
+
+                return CursorPage.of(rows, PageRequests.clampSize(size),
+                                h -> KeysetCursor.of(h.getVisitDate(), h.getId()));
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPage<VehicleHistory> getVehicleReportByCursor(LocalDate startDate, LocalDate endDate,
+                        Long tenantId, String cursor, int size) {
+                LocalDateTime start = (startDate != null)
+                                ? startDate.atStartOfDay()
+                                : LocalDateTime.of(1970, 1, 1, 0, 0);
+                LocalDateTime end = (endDate != null)
+                                ? endDate.atTime(LocalTime.MAX)
+                                : LocalDateTime.now();
+                KeysetCursor after = KeysetCursor.decode(cursor);
+
+                List<VehicleHistory> rows = vehicleHistoryRepository.findByFiltersAfter(
+                                tenantId,
+                                start,
+                                end,
+                                after.time(),
+                                after.id(),
+                                PageRequests.keysetLimit(size));
+
+                return CursorPage.of(rows, PageRequests.clampSize(size),
+                                h -> new KeysetCursor(h.getCheckInTime(), h.getId()));
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPage<StaffHistory> getStaffReportByCursor(LocalDate startDate, LocalDate endDate,
+                        String cursor, int size) {
+                LocalDateTime start = (startDate != null)
+                                ? startDate.atStartOfDay()
+                                : LocalDateTime.of(1970, 1, 1, 0, 0);
+                LocalDateTime end = (endDate != null)
+                                ? endDate.atTime(LocalTime.MAX)
+                                : LocalDateTime.now();
+                KeysetCursor after = KeysetCursor.decode(cursor);
+
+                List<StaffHistory> rows = staffHistoryRepository.findByFiltersAfter(
+                                start,
+                                end,
+                                after.time(),
+                                after.id(),
+                                PageRequests.keysetLimit(size));
+
+                return CursorPage.of(rows, PageRequests.clampSize(size),
+                                h -> new KeysetCursor(h.getCheckInTime(), h.getId()));
+        }
+
 }
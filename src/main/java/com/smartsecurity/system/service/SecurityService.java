@@ -8,6 +8,8 @@ import com.smartsecurity.system.repository.SecurityRepository;
 import com.smartsecurity.system.repository.UserRepository;
 import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.enums.Role;
+import com.smartsecurity.system.security.PrincipalCache;
+import com.smartsecurity.system.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,10 @@ public class SecurityService {
     private final SecurityRepository securityRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final NotificationRecipientRegistry recipientRegistry;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final RefreshTokenService refreshTokenService;
 
     public List<Security> getAllSecurity() {
         return securityRepository.findAll();
@@ -80,6 +86,8 @@ public class SecurityService {
                 .build();
 
         userRepository.save(user);
+        recipientRegistry.refresh(user);
+        tokenVersions.register(user);
 
         return savedSecurity;
     }
@@ -93,6 +101,7 @@ public class SecurityService {
         // Find matching user using email
         User user = userRepository.findByEmail(security.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found for this security"));
+        principalCache.invalidate(user.getEmail());
 
         // ---------- UPDATE SECURITY ----------
         if (request.getFullName() != null) {
@@ -130,9 +139,13 @@ public class SecurityService {
             security.setIdProof(request.getIdProof());
         }
 
+        tokenVersions.bump(user);
+        refreshTokenService.revokeAllForUser(user.getId());
+
         // Save BOTH
         securityRepository.save(security);
         userRepository.save(user);
+        recipientRegistry.refresh(user);
 
         return security;
     }
@@ -143,17 +156,29 @@ public class SecurityService {
         securityRepository.delete(security);
     }
 
+    @Transactional
     public Security deactivateSecurity(Long id) {
-        Security security = securityRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Security personnel not found"));
-        security.setStatus(UserStatus.INACTIVE);
-        return securityRepository.save(security);
+        return changeStatus(id, UserStatus.INACTIVE);
     }
 
+    @Transactional
     public Security activateSecurity(Long id) {
+        return changeStatus(id, UserStatus.ACTIVE);
+    }
+
+    // Mirrors the status onto the login user, as updateSecurity does
+    private Security changeStatus(Long id, UserStatus status) {
         Security security = securityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Security personnel not found"));
-        security.setStatus(UserStatus.ACTIVE);
+        security.setStatus(status);
+        userRepository.findByEmail(security.getEmail()).ifPresent(user -> {
+            user.setStatus(status);
+            tokenVersions.bump(user);
+            refreshTokenService.revokeAllForUser(user.getId());
+            userRepository.save(user);
+            recipientRegistry.refresh(user);
+            principalCache.invalidate(user.getEmail());
+        });
         return securityRepository.save(security);
     }
 }
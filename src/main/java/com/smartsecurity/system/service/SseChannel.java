@@ -0,0 +1,98 @@
+package com.smartsecurity.system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One SSE subscriber with its own bounded send queue. Producers only ever
+ * enqueue; a single drain task at a time writes the queue to the emitter on
+ * the shared executor, so events stay in order and a client that stops
+ * reading blocks nobody but itself. A subscriber that falls a full queue
+ * behind is disconnected and left to reconnect.
+ */
+@Slf4j
+final class SseChannel {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final Executor executor;
+    private final Consumer<SseChannel> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SseChannel(SseEmitter emitter, int capacity, Executor executor, Consumer<SseChannel> onClose) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Queues an event without blocking the caller. */
+    void offer(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            log.debug("SSE subscriber is {} events behind, disconnecting it", queue.size());
+            // complete() waits for a send in progress, so never call it on the producer's thread
+            if (close()) {
+                execute(emitter::complete);
+            }
+            return;
+        }
+        if (draining.compareAndSet(false, true)) {
+            execute(this::drain);
+        }
+    }
+
+    /** Stops delivery and unregisters; true only for the call that actually closed it. */
+    boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        queue.clear();
+        onClose.accept(this);
+        return true;
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    // Client went away; the container completes the emitter
+                    close();
+                    return;
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // An offer may have slipped in between the last poll and the reset
+        if (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+            execute(this::drain);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.debug("SSE executor is shutting down, dropping task");
+        }
+    }
+}
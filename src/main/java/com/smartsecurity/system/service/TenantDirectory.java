@@ -0,0 +1,120 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.TenantResponse;
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.repository.TenantRepository;
+import com.smartsecurity.system.util.AfterCommit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory tenant directory. Built from a single fetch-join query and kept
+ * until a tenant or tenant admin changes; TenantService invalidates it.
+ * Besides the response list it resolves tenants by id and by case-insensitive
+ * company name or code, so the gate entry path needs no tenant queries.
+ */
+@Service
+@RequiredArgsConstructor
+public class TenantDirectory {
+
+    private final TenantRepository tenantRepository;
+
+    private volatile Snapshot snapshot;
+    // Bumped on every invalidation so a load racing a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Snapshot(List<TenantResponse> responses, Map<Long, Tenant> byId, Map<String, Tenant> byKey) {
+    }
+
+    @Transactional(readOnly = true)
+    public List<TenantResponse> getAll() {
+        return current().responses();
+    }
+
+    /**
+     * Detached tenant, fully loaded with its admins. Safe to assign to a new
+     * or managed entity's tenant association and to serialise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Tenant> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(current().byId().get(id));
+    }
+
+    /** Looks a tenant up by company name or company code, ignoring case and surrounding spaces. */
+    @Transactional(readOnly = true)
+    public Optional<Tenant> findByNameOrCode(String nameOrCode) {
+        return nameOrCode == null ? Optional.empty()
+                : Optional.ofNullable(current().byKey().get(normalize(nameOrCode)));
+    }
+
+    /** Drops the snapshot now and again after commit, so no stale reload survives. */
+    public void invalidate() {
+        clear();
+        AfterCommit.run(this::clear);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private synchronized Snapshot load() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            long seen = generation.get();
+            List<Tenant> tenants = tenantRepository.findAllWithAdmins();
+            Map<Long, Tenant> byId = new HashMap<>();
+            Map<String, Tenant> byKey = new HashMap<>();
+            for (Tenant tenant : tenants) {
+                byId.put(tenant.getId(), tenant);
+                if (tenant.getCompanyCode() != null) {
+                    byKey.put(normalize(tenant.getCompanyCode()), tenant);
+                }
+            }
+            // Names win over codes when the two collide
+            for (Tenant tenant : tenants) {
+                if (tenant.getCompanyName() != null) {
+                    byKey.put(normalize(tenant.getCompanyName()), tenant);
+                }
+            }
+            current = new Snapshot(
+                    tenants.stream().map(TenantDirectory::toResponse).toList(),
+                    Map.copyOf(byId),
+                    Map.copyOf(byKey));
+            if (generation.get() == seen) {
+                snapshot = current;
+            }
+        }
+        return current;
+    }
+
+    private static TenantResponse toResponse(Tenant tenant) {
+        return TenantResponse.builder()
+                .id(tenant.getId())
+                .companyName(tenant.getCompanyName())
+                .companyCode(tenant.getCompanyCode())
+                .floorNumber(tenant.getFloorNumber())
+                .officeNumber(tenant.getOfficeNumber())
+                .status(tenant.getStatus())
+                .admins(List.copyOf(tenant.getAdmins()))
+                .build();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
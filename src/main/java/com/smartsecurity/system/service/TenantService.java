@@ -10,8 +10,10 @@ import com.smartsecurity.system.entity.Tenant;
 import com.smartsecurity.system.entity.User;
 
 import com.smartsecurity.system.entity.StaffHistory;
+import com.smartsecurity.system.enums.GateEventType;
 import com.smartsecurity.system.enums.Role;
 import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
 import com.smartsecurity.system.exception.ResourceNotFoundException;
 
 import com.smartsecurity.system.repository.StaffHistoryRepository;
@@ -20,9 +22,13 @@ import com.smartsecurity.system.repository.TenantRepository;
 import com.smartsecurity.system.repository.UserRepository;
 import com.smartsecurity.system.repository.VehicleRepository;
 import com.smartsecurity.system.security.JwtAuthenticationFilter;
+import com.smartsecurity.system.security.PrincipalCache;
+import com.smartsecurity.system.security.TokenVersionRegistry;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,24 +49,18 @@ public class TenantService {
     private final PasswordEncoder passwordEncoder;
 
     private final NotificationDispatcher notificationDispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationRecipientRegistry recipientRegistry;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final RefreshTokenService refreshTokenService;
+    private final TenantDirectory tenantDirectory;
 
     public List<TenantResponse> getAllTenants() {
-        return tenantRepository.findAll().stream()
-                .map(tenant -> {
-                    List<User> admins = userRepository.findByTenantId(tenant.getId());
-                    return TenantResponse.builder()
-                            .id(tenant.getId())
-                            .companyName(tenant.getCompanyName())
-                            .companyCode(tenant.getCompanyCode())
-                            .floorNumber(tenant.getFloorNumber())
-                            .officeNumber(tenant.getOfficeNumber())
-                            .status(tenant.getStatus())
-                            .admins(admins)
-                            .build();
-                })
-                .toList();
+        return tenantDirectory.getAll();
     }
 
+    @Timed("gate.operations")
     public Tenant createTenant(TenantRequest request) {
         Tenant tenant = Tenant.builder()
                 .companyName(request.getCompanyName())
@@ -70,17 +70,22 @@ public class TenantService {
                 .status(request.getStatus())
                 .build();
         Tenant savedTenant = tenantRepository.save(tenant);
+        tenantDirectory.invalidate();
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.TENANT_CREATED, savedTenant));
         notifyTenantCreated(savedTenant);
         return savedTenant;
     }
 
     private void notifyTenantCreated(Tenant tenant) {
-        notificationDispatcher.sendAsync(
-                "ADMIN_FCM_TOKEN", // fetch from DB ideally
-                "New Tenant Added",
-                "Tenant " + tenant.getCompanyName() + " created successfully");
+        for (String token : recipientRegistry.tokensFor(Role.SUPER_ADMIN)) {
+            notificationDispatcher.sendAsync(
+                    token,
+                    "New Tenant Added",
+                    "Tenant " + tenant.getCompanyName() + " created successfully");
+        }
     }
 
+    @Timed("gate.operations")
     public User addTenantAdmin(Long tenantId, TenantAdminRequest request) {
         Tenant tenant = tenantRepository.findById(tenantId)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
@@ -95,7 +100,11 @@ public class TenantService {
                 .status(request.getStatus())
                 .tenant(tenant)
                 .build();
-        return userRepository.save(admin);
+        User saved = userRepository.save(admin);
+        tenantDirectory.invalidate();
+        recipientRegistry.refresh(saved);
+        tokenVersions.register(saved);
+        return saved;
     }
 
     public List<User> getTenantAdmins(Long tenantId) {
@@ -105,6 +114,7 @@ public class TenantService {
     }
 
     @Transactional
+    @Timed("gate.operations")
     public void deleteTenantAdmin(Integer adminId) {
         User admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new RuntimeException("Admin not found"));
@@ -121,8 +131,15 @@ public class TenantService {
         }
         userRepository.delete(admin);
         userRepository.flush();
+        tenantDirectory.invalidate();
+        recipientRegistry.remove(adminId);
+        tokenVersions.remove(adminId);
+        refreshTokenService.revokeAllForUser(adminId);
+        principalCache.invalidate(admin.getEmail());
     }
 
+    @Transactional
+    @Timed("gate.operations")
     public User updateTenantAdmin(Integer adminId, TenantAdminRequest request) {
         User admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new RuntimeException("Admin not found"));
@@ -133,6 +150,7 @@ public class TenantService {
         }
 
         log.info("Updating tenant admin: {} (ID: {})", admin.getEmail(), adminId);
+        principalCache.invalidate(admin.getEmail());
 
         // Update fields if provided
         if (request.getFullName() != null) {
@@ -154,13 +172,19 @@ public class TenantService {
             admin.setStatus(request.getStatus());
         }
 
+        tokenVersions.bump(admin);
+        refreshTokenService.revokeAllForUser(adminId);
         User updatedAdmin = userRepository.save(admin);
+        tenantDirectory.invalidate();
+        recipientRegistry.refresh(updatedAdmin);
 
         log.info("Successfully updated tenant admin: {}", admin.getEmail());
 
         return updatedAdmin;
     }
 
+    @Transactional
+    @Timed("gate.operations")
     public Tenant updateTenant(Long id, TenantRequest request) {
         Tenant tenant = tenantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
@@ -181,10 +205,15 @@ public class TenantService {
             tenant.setStatus(request.getStatus());
         }
 
-        return tenantRepository.save(tenant);
+        Tenant updatedTenant = tenantRepository.save(tenant);
+        // Cached principals carry their tenant
+        principalCache.invalidateAll();
+        tenantDirectory.invalidate();
+        return updatedTenant;
     }
 
     @Transactional
+    @Timed("gate.operations")
     public void deleteTenant(Long id) {
         Tenant tenant = tenantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
@@ -207,8 +236,18 @@ public class TenantService {
         // Get count for logging (admins only, vehicles are decoupled)
         int adminCount = tenant.getAdmins() != null ? tenant.getAdmins().size() : 0;
 
+        List<Integer> adminIds = tenant.getAdmins() != null
+                ? tenant.getAdmins().stream().map(User::getId).toList()
+                : List.of();
+
         // Delete tenant (cascade will handle users)
         tenantRepository.delete(tenant);
+        tokenVersions.removeAll(adminIds);
+        adminIds.forEach(refreshTokenService::revokeAllForUser);
+        recipientRegistry.removeTenant(tenant.getId());
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.TENANT_DELETED, tenant));
+        tenantDirectory.invalidate();
+        principalCache.invalidateAll();
 
         log.info("Successfully deleted tenant: {} along with {} admin(s)",
                 tenant.getCompanyName(), adminCount);
@@ -220,6 +259,7 @@ public class TenantService {
         return staffRepository.findAll();
     }
 
+    @Timed("gate.operations")
     public Staff addStaff(StaffRequest staffRequest) {
         User currentUser = JwtAuthenticationFilter.getCurrentUser();
         if (staffRequest.getMobileNumber() != null &&
@@ -244,6 +284,7 @@ public class TenantService {
         return savedStaff;
     }
 
+    @Timed("gate.operations")
     public Staff updateStaff(Integer id, StaffRequest request) {
         Staff staff = staffRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Staff not found"));
@@ -272,16 +313,20 @@ public class TenantService {
     }
 
     @Transactional
+    @Timed("gate.operations")
     public void deleteStaff(Integer staffId) {
         Staff staff = staffRepository.findById(staffId)
                 .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
         staffRepository.delete(staff);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.STAFF_DELETED, staff, staff.getStatus()));
     }
 
+    @Timed("gate.operations")
     public Staff checkIn(Integer staffId) {
         Staff staff = staffRepository.findById(staffId)
                 .orElseThrow(() -> new RuntimeException("Staff not found"));
 
+        VisitStatus previousStatus = staff.getStatus();
         staff.setStatus(VisitStatus.CHECKED_IN);
         staff.setCheckInTime(LocalDateTime.now());
         staff = staffRepository.save(staff);
@@ -301,9 +346,11 @@ public class TenantService {
 
         staffHistoryRepository.save(staffHistory);
 
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.STAFF_CHECKED_IN, staff, previousStatus));
         return staff;
     }
 
+    @Timed("gate.operations")
     public Staff checkOut(Integer staffId) {
         Staff staff = staffRepository.findById(staffId)
                 .orElseThrow(() -> new RuntimeException("Staff not found"));
@@ -312,6 +359,7 @@ public class TenantService {
             throw new RuntimeException("Staff is not checked in");
         }
 
+        VisitStatus previousStatus = staff.getStatus();
         staff.setStatus(VisitStatus.CHECKED_OUT);
         staff.setCheckOutTime(LocalDateTime.now());
 
@@ -322,6 +370,8 @@ public class TenantService {
                     staffHistoryRepository.save(history);
                 });
 
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.STAFF_CHECKED_OUT, saved, previousStatus));
+        return saved;
     }
 }
@@ -1,22 +1,29 @@
 package com.smartsecurity.system.service;
 
+import com.smartsecurity.system.dto.CursorPage;
 import com.smartsecurity.system.dto.VehicleRequest;
 import com.smartsecurity.system.entity.Tenant;
 import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.entity.Vehicle;
 import com.smartsecurity.system.entity.VehicleHistory;
+import com.smartsecurity.system.enums.GateEventType;
 import com.smartsecurity.system.enums.VehicleStatus;
-import com.smartsecurity.system.repository.TenantRepository;
+import com.smartsecurity.system.event.GateEvent;
 
 import com.smartsecurity.system.repository.VehicleHistoryRepository;
 import com.smartsecurity.system.repository.VehicleRepository;
 import com.smartsecurity.system.security.JwtAuthenticationFilter;
+import com.smartsecurity.system.util.KeysetCursor;
+import com.smartsecurity.system.util.PageRequests;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -28,8 +35,9 @@ import org.springframework.data.domain.Sort;
 public class VehicleService {
 
     private final VehicleRepository vehicleRepository;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
     private final VehicleHistoryRepository vehicleHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Vehicle> getAllVehicles() {
         return vehicleRepository.findAll();
@@ -50,6 +58,7 @@ public class VehicleService {
                 .toList();
     }
 
+    @Timed("gate.operations")
     public Vehicle checkInVehicle(VehicleRequest request) {
         User currentUser = JwtAuthenticationFilter.getCurrentUser();
         Optional<Vehicle> existingActive = vehicleRepository
@@ -58,17 +67,9 @@ public class VehicleService {
             throw new RuntimeException("Vehicle already inside");
         }
 
-        Long tenantId = request.getTenantId();
-        if (tenantId == null && request.getCompany() != null) {
-            tenantId = tenantRepository.findByCompanyName(request.getCompany())
-                    .map(t -> t.getId())
-                    .orElse(null);
-        }
-
-        Tenant tenant = null;
-        if (tenantId != null) {
-            tenant = tenantRepository.findById(tenantId).orElse(null);
-        }
+        Tenant tenant = request.getTenantId() != null
+                ? tenantDirectory.findById(request.getTenantId()).orElse(null)
+                : tenantDirectory.findByNameOrCode(request.getCompany()).orElse(null);
 
         Vehicle vehicle = Vehicle.builder()
                 .vehicleNumber(request.getVehicleNumber())
@@ -82,13 +83,17 @@ public class VehicleService {
                 .createdAt(LocalDateTime.now())
                 .createdBy(currentUser.getId())
                 .build();
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_ENTRY_REQUESTED, saved, null));
+        return saved;
     }
 
+    @Timed("gate.operations")
     public Vehicle performCheckIn(Long vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
 
+        VehicleStatus previousStatus = vehicle.getStatus();
         vehicle.setStatus(VehicleStatus.CHECKED_IN);
         vehicle.setCheckInTime(LocalDateTime.now());
         vehicle = vehicleRepository.save(vehicle);
@@ -110,28 +115,38 @@ public class VehicleService {
 
         vehicleHistoryRepository.save(historyRecord);
 
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_CHECKED_IN, vehicle, previousStatus));
         return vehicle;
     }
 
+    @Timed("gate.operations")
     public Vehicle updateVehicle(Long vehicleId, VehicleRequest request) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+        Long previousTenantId = vehicle.getTenant() != null ? vehicle.getTenant().getId() : null;
 
         updateVehicleFields(vehicle, request);
 
         if (request.getCompany() != null && request.getTenantId() == null) {
-            tenantRepository.findByCompanyName(request.getCompany())
+            tenantDirectory.findByNameOrCode(request.getCompany())
                     .ifPresent(t -> vehicle.setTenant(t));
         }
 
         if (request.getTenantId() != null) {
-            tenantRepository.findById(request.getTenantId())
+            tenantDirectory.findById(request.getTenantId())
                     .ifPresent(v -> vehicle.setTenant(v));
         }
 
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        GateEvent event = GateEvent.of(GateEventType.VEHICLE_UPDATED, saved, saved.getStatus());
+        if (!Objects.equals(previousTenantId, event.getTenantId())) {
+            event = event.withPreviousTenantId(previousTenantId);
+        }
+        eventPublisher.publishEvent(event);
+        return saved;
     }
 
+    @Timed("gate.operations")
     public Vehicle updateTenantVehicle(Long vehicleId, VehicleRequest request, Long tenantId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
@@ -142,7 +157,9 @@ public class VehicleService {
 
         updateVehicleFields(vehicle, request);
 
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_UPDATED, saved, saved.getStatus()));
+        return saved;
     }
 
     private void updateVehicleFields(Vehicle vehicle, VehicleRequest request) {
@@ -166,6 +183,7 @@ public class VehicleService {
         }
     }
 
+    @Timed("gate.operations")
     public Vehicle checkOutVehicle(Long vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
@@ -174,6 +192,7 @@ public class VehicleService {
             throw new RuntimeException("Vehicle is not checked in");
         }
 
+        VehicleStatus previousStatus = vehicle.getStatus();
         vehicle.setStatus(VehicleStatus.CHECKED_OUT);
         vehicle.setCheckOutTime(LocalDateTime.now());
 
@@ -184,7 +203,9 @@ public class VehicleService {
                     vehicleHistoryRepository.save(history);
                 });
 
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_CHECKED_OUT, saved, previousStatus));
+        return saved;
     }
 
     public Page<VehicleHistory> getVehicleHistory(Long vehicleId, int page, int size, LocalDateTime start,
@@ -193,6 +214,15 @@ public class VehicleService {
         return vehicleHistoryRepository.findByVehicleIdWithFilters(vehicleId, start, end, pageable);
     }
 
+    public CursorPage<VehicleHistory> getVehicleHistoryByCursor(Long vehicleId, String cursor, int size,
+            LocalDateTime start, LocalDateTime end) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<VehicleHistory> rows = vehicleHistoryRepository.findByVehicleIdWithFiltersAfter(
+                vehicleId, start, end, after.time(), after.id(), PageRequests.keysetLimit(size));
+        return CursorPage.of(rows, PageRequests.clampSize(size),
+                h -> new KeysetCursor(h.getCheckInTime(), h.getId()));
+    }
+
     public Optional<Vehicle> findByNumber(String number) {
         return vehicleRepository.findByVehicleNumberAndCheckOutTimeIsNull(number);
     }
@@ -201,12 +231,15 @@ public class VehicleService {
         return vehicleRepository.findByTenant_Id(tenantId);
     }
 
+    @Timed("gate.operations")
     public void deleteVehicle(Long vehicleId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
         vehicleRepository.deleteById(vehicleId);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_DELETED, vehicle, vehicle.getStatus()));
     }
 
+    @Timed("gate.operations")
     public void deleteTenantVehicle(Long vehicleId, Long tenantId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
@@ -216,5 +249,6 @@ public class VehicleService {
         }
 
         vehicleRepository.delete(vehicle);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VEHICLE_DELETED, vehicle, vehicle.getStatus()));
     }
 }
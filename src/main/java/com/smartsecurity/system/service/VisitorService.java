@@ -1,20 +1,29 @@
 package com.smartsecurity.system.service;
 
 import com.smartsecurity.system.dto.ApprovalRequest;
+import com.smartsecurity.system.dto.CursorPage;
 import com.smartsecurity.system.dto.VisitorRequest;
+import com.smartsecurity.system.dto.VisitorSummary;
 
 import com.smartsecurity.system.entity.Tenant;
 import com.smartsecurity.system.entity.User;
 import com.smartsecurity.system.entity.VehicleHistory;
 import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.enums.GateEventType;
 import com.smartsecurity.system.enums.Role;
 import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
+import com.smartsecurity.system.exception.ResourceNotFoundException;
 import com.smartsecurity.system.repository.TenantRepository;
 import com.smartsecurity.system.repository.UserRepository;
 import com.smartsecurity.system.repository.VisitorHistoryRepository;
 import com.smartsecurity.system.repository.VisitorRepository;
 import com.smartsecurity.system.entity.VisitorHistory;
+import com.smartsecurity.system.util.KeysetCursor;
+import com.smartsecurity.system.util.PageRequests;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Page;
@@ -29,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,31 +49,46 @@ public class VisitorService {
     private final UserRepository userRepository;
     private final VisitorHistoryRepository visitorHistoryRepository;
     private final NotificationDispatcher notificationDispatcher;
+    private final PhotoStorageService photoStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationRecipientRegistry recipientRegistry;
 
-    public List<Visitor> getVisitorsForDate(LocalDate date) {
-        return visitorRepository.findByVisitDate(date);
-    }
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "visitorName", "visitDate", "status", "checkInTime", "checkOutTime");
 
-    public List<Visitor> getCheckedInVisitors() {
+    public Page<VisitorSummary> getVisitorsForDate(LocalDate date, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, Sort.by("id").descending(), SORTABLE_PROPERTIES);
+        return visitorRepository.findSummariesByVisitDate(date, pageable);
+    }
 
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getCheckInTime() != null && v.getCheckOutTime() == null)
-                .toList();
+    public Page<VisitorSummary> getCheckedInVisitors(int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort,
+                Sort.by("checkInTime").descending().and(Sort.by("id").descending()), SORTABLE_PROPERTIES);
+        return visitorRepository.findCheckedInSummaries(pageable);
     }
 
-    public List<Visitor> getCheckedOutVisitors() {
+    public Page<VisitorSummary> getCheckedOutVisitors(int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort,
+                Sort.by("checkOutTime").descending().and(Sort.by("id").descending()), SORTABLE_PROPERTIES);
+        return visitorRepository.findCheckedOutSummaries(pageable);
+    }
 
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getCheckOutTime() != null)
-                .toList();
+    public Page<VisitorSummary> getPendingApprovalsForTenant(Long tenantId, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, Sort.by("id").descending(), SORTABLE_PROPERTIES);
+        return visitorRepository.findSummariesByTenantAndStatus(tenantId, VisitStatus.PENDING, pageable);
     }
 
-    public List<Visitor> getPendingApprovalsForTenant(Long tenantId) {
+    public Visitor getVisitor(Long visitorId) {
+        return visitorRepository.findById(visitorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Visitor not found"));
+    }
 
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getStatus() == VisitStatus.PENDING)
-                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
-                .toList();
+    public Visitor getVisitorForTenant(Long visitorId, Long tenantId) {
+        Visitor visitor = getVisitor(visitorId);
+        if (visitor.getTenant() == null || !visitor.getTenant().getId().equals(tenantId)) {
+            throw new ResourceNotFoundException("Visitor not found");
+        }
+        return visitor;
     }
 
     public List<Visitor> getPendingApprovalsForTenant(User admin) {
@@ -74,21 +99,26 @@ public class VisitorService {
                 admin.getId());
     }
 
-    public List<Visitor> getTodayVisitorsForTenant(Long tenantId) {
-        LocalDate today = LocalDate.now();
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getVisitDate().equals(today))
-                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
-                .toList();
+    public long countPendingApprovals(User admin) {
+        return visitorRepository.countPendingForAdmin(
+                VisitStatus.PENDING,
+                admin.getTenant().getId(),
+                admin.getId());
+    }
+
+    public Page<VisitorSummary> getTodayVisitorsForTenant(Long tenantId, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, Sort.by("id").descending(), SORTABLE_PROPERTIES);
+        return visitorRepository.findSummariesByTenantAndVisitDate(tenantId, LocalDate.now(), pageable);
     }
 
-    public List<Visitor> getAllVisitorsForTenant(Long tenantId) {
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
-                .toList();
+    public Page<VisitorSummary> getAllVisitorsForTenant(Long tenantId, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort,
+                Sort.by("visitDate").descending().and(Sort.by("id").descending()), SORTABLE_PROPERTIES);
+        return visitorRepository.findSummariesByTenant(tenantId, pageable);
     }
 
     @Transactional
+    @Timed("gate.operations")
     public Visitor scheduleVisitor(VisitorRequest request, User tenantAdmin) {
         try {
             System.out.println("=== Scheduling Visitor ===");
@@ -103,7 +133,7 @@ public class VisitorService {
                     .status(VisitStatus.APPROVED)
                     // .approvedBy(tenantAdmin.getId())
                     .createdBy(tenantAdmin.getId())
-                    .tenant(tenantAdmin.getTenant())
+                    .tenant(tenantRepository.getReferenceById(tenantAdmin.getTenant().getId()))
                     // .assignedAdmins(new HashSet<>())
                     .build();
 
@@ -132,6 +162,7 @@ public class VisitorService {
             // }
             visitor = visitorRepository.save(visitor);
             System.out.println("=== End scheduling flow ===");
+            eventPublisher.publishEvent(GateEvent.of(GateEventType.VISITOR_CREATED, visitor, null));
             return visitor;
         } catch (Exception e) {
             System.err.println("Error scheduling visitor: " + e.getMessage());
@@ -140,6 +171,7 @@ public class VisitorService {
     }
 
     @Transactional
+    @Timed("gate.operations")
     public Visitor updateScheduledVisitor(Long visitorId, VisitorRequest request, User tenantAdmin) {
         Visitor visitor = visitorRepository.findById(visitorId)
                 .orElseThrow(() -> new RuntimeException("Visitor not found"));
@@ -171,10 +203,13 @@ public class VisitorService {
             visitor.setVisitDate(request.getVisitDate());
         }
 
-        return visitorRepository.save(visitor);
+        Visitor saved = visitorRepository.save(visitor);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VISITOR_UPDATED, saved, saved.getStatus()));
+        return saved;
     }
 
     @Transactional
+    @Timed("gate.operations")
     public Visitor addWalkInVisitor(VisitorRequest request) {
         System.out.println("=== Creating Walk-in Visitor ===");
         List<Integer> adminIds = request.getEffectiveAdminIds();
@@ -184,13 +219,15 @@ public class VisitorService {
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
 
         Integer createdByUserId = request.getCreatedByUserId();
+        boolean externalImage = PhotoStorageService.isExternalUrl(request.getImageUrl());
 
         Visitor visitor = Visitor.builder()
                 .visitorName(request.getVisitorName())
                 .mobileNumber(request.getMobileNumber())
                 .visitType(request.getVisitType())
                 .idProof(request.getIdProof())
-                .imageUrl(request.getImageUrl())
+                .photoHash(externalImage ? null : photoStorageService.storeBase64(request.getImageUrl()))
+                .imageUrl(externalImage ? request.getImageUrl().trim() : null)
                 .visitDate(LocalDate.now())
                 .status(VisitStatus.PENDING)
                 .tenant(tenant)
@@ -223,6 +260,8 @@ public class VisitorService {
         }
 
         System.out.println("=== End creation flow ===");
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VISITOR_CREATED, visitor, null)
+                .withAssignedAdminIds(assignedAdminIds(visitor)));
         // 🔔 PUSH NOTIFICATION (ASYNC)
         sendVisitorCreatedNotifications(visitor);
         return visitor;
@@ -240,26 +279,18 @@ public class VisitorService {
                 + " is waiting for approval.";
 
         for (User admin : visitor.getAssignedAdmins()) {
-
-            String fcmToken = admin.getFcmToken();
-
-            if (fcmToken == null || fcmToken.isBlank()) {
-                continue;
-            }
-
-            notificationDispatcher.sendAsync(
-                    fcmToken,
-                    title,
-                    body);
+            recipientRegistry.tokenOf(admin.getId())
+                    .ifPresent(fcmToken -> notificationDispatcher.sendAsync(fcmToken, title, body));
         }
     }
 
     @Transactional
+    @Timed("gate.operations")
     public Visitor approveOrReject(Long visitorId, ApprovalRequest request, User admin) {
 
-        // 🔐 Always reload admin from DB (IMPORTANT)
-        User adminUser = userRepository.findById(admin.getId())
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
+        // The principal is current: cached principals are evicted on change and
+        // claims tokens are revoked by a version bump, so no reload is needed
+        User adminUser = admin;
 
         // 🔍 Fetch visitor
         Visitor visitor = visitorRepository.findById(visitorId)
@@ -303,6 +334,7 @@ public class VisitorService {
                 .mobileNumber(visitor.getMobileNumber())
                 .visitType(visitor.getVisitType())
                 .idProof(visitor.getIdProof())
+                .photoHash(visitor.getPhotoHash())
                 .imageUrl(visitor.getImageUrl())
                 .status(visitor.getStatus())
                 .visitDate(visitor.getVisitDate())
@@ -314,6 +346,14 @@ public class VisitorService {
 
         visitorHistoryRepository.save(historyEntry);
 
+        GateEventType eventType = switch (visitor.getStatus()) {
+            case APPROVED -> GateEventType.VISITOR_APPROVED;
+            case REJECTED -> GateEventType.VISITOR_REJECTED;
+            default -> GateEventType.VISITOR_UPDATED;
+        };
+        eventPublisher.publishEvent(GateEvent.of(eventType, visitor, VisitStatus.PENDING)
+                .withAssignedAdminIds(assignedAdminIds(visitor)));
+
         // 🔔 Notifications
         sendSecurityCreatedNotifications(visitor);
 
@@ -323,27 +363,16 @@ public class VisitorService {
     private void sendSecurityCreatedNotifications(Visitor visitor) {
         System.out.println("Checking");
 
-        List<User> security = userRepository.findByRole(Role.SECURITY_USER);
         String approvedByName = "Admin";
         Integer approvedById = visitor.getApprovedBy();
 
         if (approvedById != null) {
-            approvedByName = userRepository
-                    .findById(approvedById) // Integer → Long
-                    .map(User::getFullName)
-                    .orElse("Admin");
+            approvedByName = recipientRegistry.nameOf(approvedById).orElse("Admin");
         }
         String title = "Visitor Approved By " + approvedByName;
         String body = "Visitor approved for " + visitor.getVisitorName();
 
-        for (User admin : security) {
-
-            String fcmToken = admin.getFcmToken();
-
-            if (fcmToken == null || fcmToken.isBlank()) {
-                continue;
-            }
-
+        for (String fcmToken : recipientRegistry.tokensFor(Role.SECURITY_USER)) {
             notificationDispatcher.sendAsync(
                     fcmToken,
                     title,
@@ -352,12 +381,14 @@ public class VisitorService {
     }
 
     @Transactional
+    @Timed("gate.operations")
     public Visitor checkIn(Long visitorId) {
         Visitor visitor = visitorRepository.findById(visitorId)
                 .orElseThrow(() -> new RuntimeException("Visitor not found"));
         if (visitor.getStatus() != VisitStatus.APPROVED) {
             throw new RuntimeException("Visitor not approved");
         }
+        VisitStatus previousStatus = visitor.getStatus();
         visitor.setStatus(VisitStatus.CHECKED_IN);
         visitor.setCheckInTime(LocalDateTime.now());
         visitor = visitorRepository.save(visitor);
@@ -379,6 +410,7 @@ public class VisitorService {
                     .mobileNumber(visitor.getMobileNumber())
                     .visitType(visitor.getVisitType())
                     .idProof(visitor.getIdProof())
+                    .photoHash(visitor.getPhotoHash())
                     .imageUrl(visitor.getImageUrl())
                     .status(visitor.getStatus())
                     .visitDate(visitor.getVisitDate())
@@ -390,12 +422,15 @@ public class VisitorService {
             visitorHistoryRepository.save(historyEntry);
         }
 
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VISITOR_CHECKED_IN, visitor, previousStatus));
         return visitor;
     }
 
+    @Timed("gate.operations")
     public Visitor checkOut(Long visitorId) {
         Visitor visitor = visitorRepository.findById(visitorId)
                 .orElseThrow(() -> new RuntimeException("Visitor not found"));
+        VisitStatus previousStatus = visitor.getStatus();
         visitor.setStatus(VisitStatus.CHECKED_OUT);
         visitor.setCheckOutTime(LocalDateTime.now());
 
@@ -406,7 +441,9 @@ public class VisitorService {
                     visitorHistoryRepository.save(history);
                 });
 
-        return visitorRepository.save(visitor);
+        Visitor saved = visitorRepository.save(visitor);
+        eventPublisher.publishEvent(GateEvent.of(GateEventType.VISITOR_CHECKED_OUT, saved, previousStatus));
+        return saved;
     }
 
     public Page<VisitorHistory> getVisitorHistory(Long visitorId, int page, int size, LocalDateTime start,
@@ -415,17 +452,34 @@ public class VisitorService {
         return visitorHistoryRepository.findByVisitorIdWithFilters(visitorId, start, end, pageable);
     }
 
+    public CursorPage<VisitorHistory> getVisitorHistoryByCursor(Long visitorId, String cursor, int size,
+            LocalDateTime start, LocalDateTime end) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<VisitorHistory> rows = visitorHistoryRepository.findByVisitorIdWithFiltersAfter(
+                visitorId, start, end, after.time(), after.id(), PageRequests.keysetLimit(size));
+        return CursorPage.of(rows, PageRequests.clampSize(size),
+                h -> new KeysetCursor(h.getCheckInTime(), h.getId()));
+    }
+
     @Transactional
+    @Timed("gate.operations")
     public void deleteVisitor(Long visitorId) {
         Visitor visitor = visitorRepository.findById(visitorId)
                 .orElseThrow(() -> new RuntimeException("Visitor not found"));
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_DELETED, visitor, visitor.getStatus());
+        if (visitor.getStatus() == VisitStatus.PENDING) {
+            event = event.withAssignedAdminIds(assignedAdminIds(visitor));
+        }
         visitorRepository.deleteById(visitorId);
+        eventPublisher.publishEvent(event);
     }
 
-    public List<Visitor> getAllVisitorsForTenant(Long tenantId, User admin) {
-
-        return visitorRepository.findAll().stream()
-                .filter(v -> v.getTenant() != null && v.getTenant().getId().equals(tenantId))
-                .toList();
+    private static Set<Integer> assignedAdminIds(Visitor visitor) {
+        if (visitor.getAssignedAdmins() == null) {
+            return Set.of();
+        }
+        return visitor.getAssignedAdmins().stream()
+                .map(User::getId)
+                .collect(Collectors.toUnmodifiableSet());
     }
 }
@@ -0,0 +1,413 @@
+package com.smartsecurity.system.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Small column-oriented file format for archived history rows. Each column
+ * is encoded on its own and deflated as one block, so a reader only inflates
+ * the columns it asks for.
+ *
+ * <pre>
+ * "SSCA" version:u8 rows:varint columns:varint
+ * per column: name:utf kind:u8 rawLength:i32 blockLength:i32 crc32:i32
+ * column blocks, in the same order
+ * </pre>
+ *
+ * A block starts with a null bitmap, followed by the non-null values:
+ * {@link Kind#INT64} as zigzag varint deltas from the previous value,
+ * {@link Kind#DICT} as a string dictionary plus one varint code per value,
+ * {@link Kind#TEXT} as length-prefixed UTF-8.
+ */
+public final class ColumnarFile {
+
+    private static final byte[] MAGIC = { 'S', 'S', 'C', 'A' };
+    private static final int VERSION = 1;
+
+    private ColumnarFile() {
+    }
+
+    public enum Kind {
+        /** Longs: ids, epoch days, epoch millis. Sorted or clustered values shrink to a byte or two. */
+        INT64,
+        /** Low-cardinality strings such as enums and tenant ids. */
+        DICT,
+        /** Free text. */
+        TEXT
+    }
+
+    /** Buffers rows column by column and writes them out in one go. */
+    public static final class Writer {
+
+        private final Map<String, Kind> schema;
+        private final List<List<Object>> columns = new ArrayList<>();
+        private int rows;
+
+        public Writer(Map<String, Kind> schema) {
+            this.schema = new LinkedHashMap<>(schema);
+            schema.forEach((name, kind) -> columns.add(new ArrayList<>()));
+        }
+
+        /** Values in schema order: {@code Long} for INT64, {@code String} for DICT and TEXT, or null. */
+        public void addRow(Object... values) {
+            if (values.length != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+            }
+            for (int i = 0; i < values.length; i++) {
+                columns.get(i).add(values[i]);
+            }
+            rows++;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        /** Writes the file through a temp file and an atomic move; returns its size in bytes. */
+        public long writeTo(Path target) throws IOException {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream file = Files.newOutputStream(temp)) {
+                    write(file);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return Files.size(target);
+        }
+
+        private void write(OutputStream target) throws IOException {
+            List<byte[]> raw = new ArrayList<>();
+            List<byte[]> blocks = new ArrayList<>();
+            int index = 0;
+            for (Kind kind : schema.values()) {
+                byte[] encoded = encode(kind, columns.get(index++));
+                raw.add(encoded);
+                blocks.add(deflate(encoded));
+            }
+
+            DataOutputStream out = new DataOutputStream(target);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeVarint(out, rows);
+            writeVarint(out, schema.size());
+            index = 0;
+            for (Map.Entry<String, Kind> column : schema.entrySet()) {
+                CRC32 crc = new CRC32();
+                crc.update(blocks.get(index));
+                out.writeUTF(column.getKey());
+                out.writeByte(column.getValue().ordinal());
+                out.writeInt(raw.get(index).length);
+                out.writeInt(blocks.get(index).length);
+                out.writeInt((int) crc.getValue());
+                index++;
+            }
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+            out.flush();
+        }
+    }
+
+    /** Reads the header eagerly and column blocks on demand. */
+    public static final class Reader {
+
+        private final Path path;
+        private final int rows;
+        private final Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+
+        private record ColumnInfo(Kind kind, long offset, int rawLength, int blockLength, int crc) {
+        }
+
+        private Reader(Path path) throws IOException {
+            this.path = path;
+            try (InputStream file = Files.newInputStream(path)) {
+                CountingInput counting = new CountingInput(file);
+                DataInputStream in = new DataInputStream(counting);
+                byte[] magic = in.readNBytes(MAGIC.length);
+                if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+                    throw new IOException("Not a columnar archive file: " + path);
+                }
+                rows = readVarint(in);
+                int count = readVarint(in);
+                List<String> names = new ArrayList<>();
+                List<int[]> lengths = new ArrayList<>();
+                List<Kind> kinds = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    names.add(in.readUTF());
+                    kinds.add(Kind.values()[in.readUnsignedByte()]);
+                    lengths.add(new int[] { in.readInt(), in.readInt(), in.readInt() });
+                }
+                long offset = counting.position;
+                for (int i = 0; i < count; i++) {
+                    int[] l = lengths.get(i);
+                    columns.put(names.get(i), new ColumnInfo(kinds.get(i), offset, l[0], l[1], l[2]));
+                    offset += l[1];
+                }
+            }
+        }
+
+        public static Reader open(Path path) throws IOException {
+            return new Reader(path);
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public boolean hasColumn(String name) {
+            return columns.containsKey(name);
+        }
+
+        /** Decoded values of one column, one entry per row (null where the row had none). */
+        public List<Object> column(String name) throws IOException {
+            ColumnInfo info = columns.get(name);
+            if (info == null) {
+                throw new IllegalArgumentException("No column " + name + " in " + path);
+            }
+            byte[] block = new byte[info.blockLength()];
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+                file.seek(info.offset());
+                file.readFully(block);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(block);
+            if ((int) crc.getValue() != info.crc()) {
+                throw new IOException("Checksum mismatch in column " + name + " of " + path);
+            }
+            return decode(info.kind(), inflate(block, info.rawLength()), rows);
+        }
+    }
+
+    private static byte[] encode(Kind kind, List<Object> values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        BitSet nulls = new BitSet(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                nulls.set(i);
+            }
+        }
+        byte[] bitmap = nulls.toByteArray();
+        writeVarint(out, bitmap.length);
+        out.write(bitmap);
+
+        switch (kind) {
+            case INT64 -> {
+                long previous = 0;
+                for (Object value : values) {
+                    if (value != null) {
+                        long current = ((Number) value).longValue();
+                        writeVarLong(out, zigzag(current - previous));
+                        previous = current;
+                    }
+                }
+            }
+            case DICT -> {
+                Map<String, Integer> codes = new LinkedHashMap<>();
+                for (Object value : values) {
+                    if (value != null) {
+                        codes.putIfAbsent(value.toString(), codes.size());
+                    }
+                }
+                writeVarint(out, codes.size());
+                for (String entry : codes.keySet()) {
+                    writeString(out, entry);
+                }
+                for (Object value : values) {
+                    if (value != null) {
+                        writeVarint(out, codes.get(value.toString()));
+                    }
+                }
+            }
+            case TEXT -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        writeString(out, value.toString());
+                    }
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<Object> decode(Kind kind, byte[] raw, int rows) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        BitSet nulls = BitSet.valueOf(in.readNBytes(readVarint(in)));
+        List<Object> values = new ArrayList<>(rows);
+
+        switch (kind) {
+            case INT64 -> {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    if (nulls.get(i)) {
+                        values.add(null);
+                    } else {
+                        previous += unzigzag(readVarLong(in));
+                        values.add(previous);
+                    }
+                }
+            }
+            case DICT -> {
+                int size = readVarint(in);
+                Map<Integer, String> dictionary = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    dictionary.put(i, readString(in));
+                }
+                for (int i = 0; i < rows; i++) {
+                    values.add(nulls.get(i) ? null : dictionary.get(readVarint(in)));
+                }
+            }
+            case TEXT -> {
+                for (int i = 0; i < rows; i++) {
+                    values.add(nulls.get(i) ? null : readString(in));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] block, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Truncated column block");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(readVarint(in)), StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /** Tracks how far the header parse has read, to locate the first block. */
+    private static final class CountingInput extends FilterInputStream {
+
+        private long position;
+
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+    }
+}
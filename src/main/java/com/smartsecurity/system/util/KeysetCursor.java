@@ -0,0 +1,48 @@
+package com.smartsecurity.system.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a (timestamp, id) ordered result, handed to clients as an opaque
+ * token. Rows are read newest first, so a page continues strictly below the
+ * cursor of the last row it returned.
+ */
+public record KeysetCursor(LocalDateTime time, Long id) {
+
+    /** Sorts after every real row; used for the first page. */
+    public static final KeysetCursor FIRST = new KeysetCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static KeysetCursor of(LocalDate date, Long id) {
+        return new KeysetCursor(date.atStartOfDay(), id);
+    }
+
+    public LocalDate date() {
+        return time.toLocalDate();
+    }
+
+    public String encode() {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A blank token starts from the newest row. */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartsecurity.system.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+public final class PageRequests {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageRequests() {
+    }
+
+    /**
+     * Builds a bounded page request from raw query parameters. {@code sort} uses
+     * the Spring "property,direction" form, e.g. {@code checkInTime,desc}, and is
+     * restricted to {@code sortable} so clients cannot order by unindexed columns.
+     */
+    public static Pageable of(int page, int size, String sort, Sort defaultSort, Set<String> sortable) {
+        return PageRequest.of(Math.max(page, 0), clampSize(size), parseSort(sort, defaultSort, sortable));
+    }
+
+    public static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Limit for a keyset query: one row beyond the page tells whether another
+     * page exists without running a count query.
+     */
+    public static Pageable keysetLimit(int size) {
+        return PageRequest.of(0, clampSize(size) + 1);
+    }
+
+    private static Sort parseSort(String sort, Sort defaultSort, Set<String> sortable) {
+        if (sort == null || sort.isBlank()) {
+            return defaultSort;
+        }
+
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!sortable.contains(property)) {
+            throw new RuntimeException("Unsupported sort property: " + property);
+        }
+
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+                : Sort.Direction.ASC;
+
+        Sort requested = Sort.by(direction, property);
+        // id as tie-breaker keeps page boundaries stable between requests
+        return "id".equals(property) ? requested : requested.and(Sort.by(direction, "id"));
+    }
+}
@@ -0,0 +1,140 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it before
+-- Flyway took over. Databases that already have these tables are baselined
+-- at this version and skip it, so everything added since lives in V2 onwards.
+
+CREATE TABLE IF NOT EXISTS tenants (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_name    VARCHAR(255) NOT NULL UNIQUE,
+    company_code    VARCHAR(255) NOT NULL UNIQUE,
+    floor_number    INTEGER,
+    office_number   VARCHAR(255),
+    status          VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email           VARCHAR(255) NOT NULL UNIQUE,
+    password        VARCHAR(255) NOT NULL,
+    full_name       VARCHAR(255),
+    mobile_number   VARCHAR(255) UNIQUE,
+    id_proof        VARCHAR(255),
+    role            VARCHAR(255),
+    status          VARCHAR(255),
+    fcm_token       VARCHAR(255),
+    tenant_id       BIGINT REFERENCES tenants (id)
+);
+
+CREATE TABLE IF NOT EXISTS security (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name       VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL UNIQUE,
+    mobile_number   VARCHAR(255) UNIQUE,
+    password        VARCHAR(255) NOT NULL,
+    id_proof        VARCHAR(255),
+    status          VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS staff (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    employee_code   VARCHAR(255),
+    address         VARCHAR(255),
+    name            VARCHAR(255),
+    mobile_number   VARCHAR(255),
+    id_proof        VARCHAR(255),
+    status          VARCHAR(255),
+    created_by      INTEGER,
+    created_at      TIMESTAMP(6) NOT NULL,
+    check_in_time   TIMESTAMP(6),
+    check_out_time  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS staff_history (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    staff_id        BIGINT NOT NULL,
+    employee_code   VARCHAR(255),
+    address         VARCHAR(255),
+    name            VARCHAR(255),
+    mobile_number   VARCHAR(255),
+    id_proof        VARCHAR(255),
+    status          VARCHAR(255),
+    created_by      INTEGER,
+    created_at      TIMESTAMP(6) NOT NULL,
+    check_in_time   TIMESTAMP(6),
+    check_out_time  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS vehicles (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_type    VARCHAR(255),
+    vehicle_number  VARCHAR(255) NOT NULL,
+    driver_name     VARCHAR(255),
+    company         VARCHAR(255),
+    tenant_id       BIGINT REFERENCES tenants (id),
+    purpose         VARCHAR(255),
+    status          VARCHAR(255),
+    user_type       VARCHAR(255),
+    check_in_time   TIMESTAMP(6),
+    check_out_time  TIMESTAMP(6),
+    created_at      TIMESTAMP(6) NOT NULL,
+    created_by      INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS vehicle_history (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id       BIGINT REFERENCES tenants (id),
+    vehicle_id      BIGINT NOT NULL,
+    vehicle_type    VARCHAR(255),
+    vehicle_number  VARCHAR(255),
+    driver_name     VARCHAR(255),
+    company         VARCHAR(255),
+    purpose         VARCHAR(255),
+    status          VARCHAR(255),
+    user_type       VARCHAR(255),
+    check_in_time   TIMESTAMP(6),
+    check_out_time  TIMESTAMP(6),
+    created_at      TIMESTAMP(6) NOT NULL,
+    created_by      INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS visitors (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    visitor_name        VARCHAR(255) NOT NULL,
+    mobile_number       VARCHAR(255) NOT NULL,
+    visit_type          VARCHAR(255),
+    id_proof            VARCHAR(255),
+    image_url           TEXT,
+    visit_date          DATE,
+    status              VARCHAR(255),
+    tenant_id           BIGINT REFERENCES tenants (id),
+    approved_by         INTEGER,
+    created_by          INTEGER,
+    rejection_remarks   VARCHAR(255),
+    check_in_time       TIMESTAMP(6),
+    check_out_time      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS visitor_admins (
+    visitor_id      BIGINT NOT NULL REFERENCES visitors (id),
+    admin_id        INTEGER NOT NULL REFERENCES users (id),
+    PRIMARY KEY (visitor_id, admin_id)
+);
+
+CREATE TABLE IF NOT EXISTS visitor_history (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    visitor_id          BIGINT NOT NULL,
+    visitor_name        VARCHAR(255),
+    mobile_number       VARCHAR(255),
+    visit_type          VARCHAR(255),
+    status              VARCHAR(255),
+    visit_date          DATE,
+    check_in_time       TIMESTAMP(6),
+    check_out_time      TIMESTAMP(6),
+    rejection_remarks   VARCHAR(255),
+    image_url           TEXT,
+    id_proof            VARCHAR(255),
+    tenant_id           BIGINT REFERENCES tenants (id),
+    created_by          INTEGER,
+    approved_by         INTEGER
+);
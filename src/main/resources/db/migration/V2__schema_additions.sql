@@ -0,0 +1,46 @@
+-- Columns and tables added after the baseline. Written to be safe on both
+-- fresh databases and ones baselined at V1 by an earlier ddl-auto run.
+
+-- Content hash into the photo store. image_url stays for photos hosted
+-- elsewhere; PhotoMigrationRunner moves legacy base64 photos out of it
+ALTER TABLE visitors ADD COLUMN IF NOT EXISTS photo_hash VARCHAR(64);
+ALTER TABLE visitor_history ADD COLUMN IF NOT EXISTS photo_hash VARCHAR(64);
+
+-- Bumped on status, credential or scope changes; checked against claims tokens
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash      VARCHAR(64) NOT NULL UNIQUE,
+    user_id         INTEGER NOT NULL,
+    family_id       VARCHAR(36) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    revoked_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS notification_dead_letters (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token           VARCHAR(512),
+    title           VARCHAR(255),
+    body            VARCHAR(1000),
+    attempts        INTEGER,
+    error           VARCHAR(1000),
+    failed_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    name            VARCHAR(64) PRIMARY KEY,
+    counter_value   BIGINT NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_rollups (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rollup_day      DATE NOT NULL,
+    subject         VARCHAR(16) NOT NULL,
+    tenant_id       BIGINT NOT NULL,
+    status          VARCHAR(32) NOT NULL,
+    total           BIGINT NOT NULL,
+    CONSTRAINT uk_daily_rollups_key UNIQUE (rollup_day, subject, tenant_id, status)
+);
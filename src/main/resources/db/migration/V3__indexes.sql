@@ -0,0 +1,47 @@
+-- Indexes for the queries the repositories actually run. IF NOT EXISTS
+-- because the ones that used to be declared on the entities already exist
+-- in databases Hibernate created.
+
+-- Previously declared through @Table(indexes = ...)
+CREATE INDEX IF NOT EXISTS idx_visitors_tenant_status_date ON visitors (tenant_id, status, visit_date);
+CREATE INDEX IF NOT EXISTS idx_visitors_visit_date ON visitors (visit_date);
+CREATE INDEX IF NOT EXISTS idx_visitors_check_out_check_in ON visitors (check_out_time, check_in_time);
+CREATE INDEX IF NOT EXISTS idx_visitor_history_visitor_check_in ON visitor_history (visitor_id, check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_visitor_history_check_in ON visitor_history (check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_visitor_history_tenant_visit_date ON visitor_history (tenant_id, visit_date, id);
+CREATE INDEX IF NOT EXISTS idx_visitor_history_visit_date ON visitor_history (visit_date, id);
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_vehicle_check_in ON vehicle_history (vehicle_id, check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_tenant_check_in ON vehicle_history (tenant_id, check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_check_in ON vehicle_history (check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_staff_history_check_in ON staff_history (check_in_time, id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+
+-- Open entries: check-in/check-out look these up on every gate event
+-- VehicleRepository.findByVehicleNumberAndCheckOutTimeIsNull
+CREATE INDEX IF NOT EXISTS idx_vehicles_number_open ON vehicles (vehicle_number) WHERE check_out_time IS NULL;
+-- VisitorHistoryRepository.findByVisitorIdAndCheckOutTimeIsNull
+CREATE INDEX IF NOT EXISTS idx_visitor_history_visitor_open ON visitor_history (visitor_id) WHERE check_out_time IS NULL;
+-- VehicleHistoryRepository.findByVehicleIdAndCheckOutTimeIsNull
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_vehicle_open ON vehicle_history (vehicle_id) WHERE check_out_time IS NULL;
+-- StaffHistoryRepository.findByStaffIdAndCheckOutTimeIsNull
+CREATE INDEX IF NOT EXISTS idx_staff_history_staff_open ON staff_history (staff_id) WHERE check_out_time IS NULL;
+
+-- VisitorRepository.findPendingForAdmin / countPendingForAdmin: start from the
+-- admin's assignments, then filter visitors through idx_visitors_tenant_status_date
+CREATE INDEX IF NOT EXISTS idx_visitor_admins_admin ON visitor_admins (admin_id, visitor_id);
+
+-- Currently inside: small slices of large tables, read by the occupancy index,
+-- the dashboard counters and the checked-in listings
+CREATE INDEX IF NOT EXISTS idx_visitors_inside ON visitors (check_in_time)
+    WHERE check_in_time IS NOT NULL AND check_out_time IS NULL;
+CREATE INDEX IF NOT EXISTS idx_vehicles_inside ON vehicles (status) WHERE status = 'CHECKED_IN';
+CREATE INDEX IF NOT EXISTS idx_vehicles_tenant_inside ON vehicles (tenant_id) WHERE check_out_time IS NULL;
+CREATE INDEX IF NOT EXISTS idx_staff_inside ON staff (status) WHERE status = 'CHECKED_IN';
+
+-- Remaining foreign key and lookup columns
+CREATE INDEX IF NOT EXISTS idx_vehicles_tenant ON vehicles (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_users_tenant ON users (tenant_id);
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+CREATE INDEX IF NOT EXISTS idx_staff_mobile_number ON staff (mobile_number);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens (expires_at);
@@ -0,0 +1,67 @@
+-- Converts the history tables to monthly range partitions, the layout
+-- HistoryPartitions maintains. Tables that are already partitioned are left
+-- alone. Partitioned tables have no primary key (PostgreSQL would require the
+-- partition key in it), so ids stay unique through their sequence and an
+-- index on id serves lookups.
+
+CREATE FUNCTION pg_temp.partition_history(tbl TEXT, partition_key TEXT, ahead_months INTEGER)
+RETURNS VOID LANGUAGE plpgsql AS $$
+DECLARE
+    legacy TEXT := tbl || '_legacy';
+    -- Not "<table>_id_seq": that is still the identity sequence of the renamed table
+    seq TEXT := tbl || '_part_id_seq';
+    definitions TEXT[];
+    foreign_keys TEXT[];
+    definition TEXT;
+    oldest DATE;
+    month DATE;
+BEGIN
+    IF to_regclass(tbl) IS NULL
+            OR EXISTS (SELECT 1 FROM pg_partitioned_table p
+                       JOIN pg_class c ON c.oid = p.partrelid
+                       WHERE c.relname = tbl) THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', tbl);
+    SELECT array_agg(indexdef) INTO definitions FROM pg_indexes
+    WHERE tablename = tbl AND indexdef NOT LIKE 'CREATE UNIQUE%';
+    -- LIKE does not copy foreign keys; partitioned parents take them from PostgreSQL 12 on
+    SELECT array_agg(format('ALTER TABLE %I ADD CONSTRAINT %I %s', tbl, conname, pg_get_constraintdef(oid)))
+    INTO foreign_keys FROM pg_constraint
+    WHERE conrelid = tbl::regclass AND contype = 'f';
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, legacy);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS) PARTITION BY RANGE (%I)',
+                   tbl, legacy, partition_key);
+    -- Hibernate inserts without an id and reads it back, so the column needs a default
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I OWNED BY %I.id', seq, tbl);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, seq);
+    EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)', seq, legacy);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+
+    EXECUTE format('SELECT MIN(%I)::date FROM %I', partition_key, legacy) INTO oldest;
+    month := date_trunc('month', COALESCE(oldest, current_date))::date;
+    WHILE month <= date_trunc('month', current_date + make_interval(months => ahead_months)) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       tbl || '_p' || to_char(month, 'YYYY_MM'), tbl,
+                       month, (month + INTERVAL '1 month')::date);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', tbl, legacy);
+    EXECUTE format('DROP TABLE %I', legacy);
+    EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I (id)', 'idx_' || tbl || '_id', tbl);
+    -- The captured definitions name the original table, which is now the partitioned one
+    FOREACH definition IN ARRAY COALESCE(definitions, ARRAY[]::TEXT[]) LOOP
+        EXECUTE definition;
+    END LOOP;
+    FOREACH definition IN ARRAY COALESCE(foreign_keys, ARRAY[]::TEXT[]) LOOP
+        EXECUTE definition;
+    END LOOP;
+END;
+$$;
+
+SELECT pg_temp.partition_history('visitor_history', 'visit_date', 12);
+SELECT pg_temp.partition_history('vehicle_history', 'check_in_time', 12);
+SELECT pg_temp.partition_history('staff_history', 'check_in_time', 12);
@@ -0,0 +1,52 @@
+package com.smartsecurity.system.config;
+
+import com.smartsecurity.system.service.PhotoStorageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoMigrationRunnerTest {
+
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13 };
+
+    @TempDir
+    Path photoDir;
+
+    @Test
+    void movesBase64PhotosAndKeepsExternalUrls() throws IOException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PhotoStorageService photoStorageService = new PhotoStorageService(photoDir.toString());
+        when(jdbcTemplate.queryForObject(contains("information_schema"), eq(Integer.class), eq("visitors")))
+                .thenReturn(1);
+        when(jdbcTemplate.queryForList(contains("FROM visitors"), eq(0L))).thenReturn(List.of(
+                Map.of("id", 1L, "image_url", "https://cdn.example.com/visitors/1.jpg"),
+                Map.of("id", 2L, "image_url", "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG))));
+
+        new PhotoMigrationRunner(jdbcTemplate, photoStorageService).run();
+
+        String hash = photoStorageService.store(PNG);
+        verify(jdbcTemplate).update(contains("UPDATE visitors"), eq(hash), eq(2L));
+        verify(jdbcTemplate, never()).update(anyString(), any(), eq(1L));
+        try (Stream<Path> files = Files.walk(photoDir)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+}
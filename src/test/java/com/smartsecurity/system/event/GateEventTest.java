@@ -0,0 +1,28 @@
+package com.smartsecurity.system.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartsecurity.system.enums.GateEventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GateEventTest {
+
+    @Test
+    void assignedAdminsAreNotSerialized() throws Exception {
+        GateEvent event = GateEvent.builder()
+                .type(GateEventType.VISITOR_CREATED)
+                .subjectId(7L)
+                .tenantId(3L)
+                .status("PENDING")
+                .build()
+                .withAssignedAdminIds(Set.of(11, 12));
+
+        String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(event);
+
+        assertThat(json).contains("\"subjectId\":7").doesNotContain("assignedAdminIds").doesNotContain("11");
+    }
+}
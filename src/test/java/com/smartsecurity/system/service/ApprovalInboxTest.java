@@ -0,0 +1,62 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.entity.Tenant;
+import com.smartsecurity.system.entity.Visitor;
+import com.smartsecurity.system.enums.GateEventType;
+import com.smartsecurity.system.enums.VisitStatus;
+import com.smartsecurity.system.event.GateEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApprovalInboxTest {
+
+    @Test
+    void newPendingWalkInIsAdded() {
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_CREATED, visitor(VisitStatus.PENDING), null);
+
+        assertThat(ApprovalInbox.inboxEventName(event)).isEqualTo("pending-added");
+    }
+
+    @Test
+    void approvalResolvesPendingVisitor() {
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_APPROVED, visitor(VisitStatus.APPROVED),
+                VisitStatus.PENDING);
+
+        assertThat(ApprovalInbox.inboxEventName(event)).isEqualTo("pending-resolved");
+    }
+
+    @Test
+    void deletingPendingVisitorResolvesIt() {
+        // As VisitorService.deleteVisitor publishes it: the status is unchanged on delete
+        Visitor visitor = visitor(VisitStatus.PENDING);
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_DELETED, visitor, visitor.getStatus());
+
+        assertThat(ApprovalInbox.inboxEventName(event)).isEqualTo("pending-resolved");
+    }
+
+    @Test
+    void deletingApprovedVisitorIsIgnored() {
+        Visitor visitor = visitor(VisitStatus.APPROVED);
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_DELETED, visitor, visitor.getStatus());
+
+        assertThat(ApprovalInbox.inboxEventName(event)).isNull();
+    }
+
+    @Test
+    void editingPendingVisitorIsIgnored() {
+        GateEvent event = GateEvent.of(GateEventType.VISITOR_UPDATED, visitor(VisitStatus.PENDING),
+                VisitStatus.PENDING);
+
+        assertThat(ApprovalInbox.inboxEventName(event)).isNull();
+    }
+
+    private static Visitor visitor(VisitStatus status) {
+        return Visitor.builder()
+                .id(7L)
+                .visitorName("Asha")
+                .status(status)
+                .tenant(Tenant.builder().id(3L).build())
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartsecurity.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartsecurity.system.repository.StaffHistoryRepository;
+import com.smartsecurity.system.repository.VehicleHistoryRepository;
+import com.smartsecurity.system.repository.VisitorHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class HistoryArchiveTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 1, 31);
+
+    @TempDir
+    Path archiveDir;
+
+    private HistoryArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = new HistoryArchive(mock(VisitorHistoryRepository.class), mock(VehicleHistoryRepository.class),
+                mock(StaffHistoryRepository.class), new ObjectMapper().registerModule(new JavaTimeModule()),
+                mock(PlatformTransactionManager.class), archiveDir.toString(), 2, 30);
+    }
+
+    @Test
+    void staffCountsRejectTenantFilter() {
+        assertThatThrownBy(() -> archive.dailyCounts(HistoryArchive.Table.STAFF_HISTORY, FROM, TO, 5L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Staff history cannot be filtered by tenant");
+    }
+
+    @Test
+    void staffCountsWithoutTenantAreAllowed() {
+        assertThat(archive.dailyCounts(HistoryArchive.Table.STAFF_HISTORY, FROM, TO, null)).isEmpty();
+    }
+
+    @Test
+    void visitorCountsAcceptTenantFilter() {
+        assertThat(archive.dailyCounts(HistoryArchive.Table.VISITOR_HISTORY, FROM, TO, 5L)).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.PushMessage;
+import com.smartsecurity.system.repository.NotificationDeadLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class NotificationDispatcherTest {
+
+    private final NotificationDeadLetterRepository deadLetterRepository = mock(NotificationDeadLetterRepository.class);
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void missingResultsAreRetried() {
+        // First call answers for nobody, later calls for everyone
+        AtomicInteger calls = new AtomicInteger();
+        dispatcher = dispatcher(new TestSender(batch -> calls.getAndIncrement() == 0
+                ? List.of()
+                : Collections.nCopies(batch.size(), PushSender.Result.ok())));
+
+        dispatcher.sendAsync("token-1", "Visitor", "Asha is at the gate");
+        dispatcher.sendAsync("token-2", "Visitor", "Ravi is at the gate");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> dispatcher.getStats().getSent() == 2);
+        assertThat(dispatcher.getStats().getRetried()).isPositive();
+        assertThat(dispatcher.getStats().getDeadLettered()).isZero();
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    private NotificationDispatcher dispatcher(PushSender sender) {
+        return new NotificationDispatcher(sender, deadLetterRepository, new SimpleMeterRegistry(),
+                100, 1, 10, 3, 10, 1000);
+    }
+
+    private record TestSender(Function<List<PushMessage>, List<PushSender.Result>> answer)
+            implements PushSender {
+
+        @Override
+        public List<Result> send(List<PushMessage> batch) {
+            return answer.apply(batch);
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+    }
+}
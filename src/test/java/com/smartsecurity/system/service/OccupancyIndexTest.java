@@ -0,0 +1,63 @@
+package com.smartsecurity.system.service;
+
+import com.smartsecurity.system.dto.Occupant;
+import com.smartsecurity.system.enums.GateEventType;
+import com.smartsecurity.system.enums.OccupantType;
+import com.smartsecurity.system.event.GateEvent;
+import com.smartsecurity.system.repository.StaffRepository;
+import com.smartsecurity.system.repository.VehicleRepository;
+import com.smartsecurity.system.repository.VisitorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class OccupancyIndexTest {
+
+    private static final LocalDateTime CHECK_IN = LocalDateTime.of(2026, 3, 2, 9, 15);
+
+    private OccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OccupancyIndex(mock(VisitorRepository.class), mock(VehicleRepository.class),
+                mock(StaffRepository.class));
+        index.rebuild();
+    }
+
+    @Test
+    void vehicleMovedToAnotherTenantIsRefiled() {
+        index.onGateEvent(vehicleEvent(GateEventType.VEHICLE_CHECKED_IN, 1L, "KA01AB1234", CHECK_IN));
+
+        index.onGateEvent(vehicleEvent(GateEventType.VEHICLE_UPDATED, 2L, "KA01AB9999", CHECK_IN.plusHours(2))
+                .withPreviousTenantId(1L));
+
+        assertThat(index.inside(1L, null)).isEmpty();
+        assertThat(index.inside(2L, OccupantType.VEHICLE))
+                .extracting(Occupant::getLabel, Occupant::getSince)
+                .containsExactly(tuple("KA01AB9999", CHECK_IN));
+        assertThat(index.counts(null)).containsEntry(OccupantType.VEHICLE, 1L);
+    }
+
+    @Test
+    void updateForVehicleOutsideAddsNothing() {
+        index.onGateEvent(vehicleEvent(GateEventType.VEHICLE_UPDATED, 2L, "KA01AB1234", CHECK_IN)
+                .withPreviousTenantId(1L));
+
+        assertThat(index.counts(null)).containsEntry(OccupantType.VEHICLE, 0L);
+    }
+
+    private static GateEvent vehicleEvent(GateEventType type, Long tenantId, String label, LocalDateTime at) {
+        return GateEvent.builder()
+                .type(type)
+                .subjectId(7L)
+                .tenantId(tenantId)
+                .label(label)
+                .occurredAt(at)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartsecurity.system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportExporterTest {
+
+    @Test
+    void phoneNumbersAndSignedNumbersAreExportedUnchanged() {
+        assertThat(ReportExporter.csvField("+919876543210")).isEqualTo("+919876543210");
+        assertThat(ReportExporter.csvField("+91 98765 43210")).isEqualTo("+91 98765 43210");
+        assertThat(ReportExporter.csvField("-12.5")).isEqualTo("-12.5");
+    }
+
+    @Test
+    void formulasAreEscaped() {
+        assertThat(ReportExporter.csvField("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(ReportExporter.csvField("+cmd|' /C calc'!A0")).isEqualTo("'+cmd|' /C calc'!A0");
+        assertThat(ReportExporter.csvField("-2+3+cmd|' /C calc'!A0")).startsWith("'");
+        assertThat(ReportExporter.csvField("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+    }
+
+    @Test
+    void separatorsAreQuoted() {
+        assertThat(ReportExporter.csvField("Tower A, Floor 3")).isEqualTo("\"Tower A, Floor 3\"");
+        assertThat(ReportExporter.csvField("plain")).isEqualTo("plain");
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartsecurity.system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SseChannelTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        unblock.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithoutDelayingOthers() {
+        List<SseChannel> closed = new CopyOnWriteArrayList<>();
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        SseChannel slow = new SseChannel(stalled, 4, executor, closed::add);
+        SseChannel fast = new SseChannel(healthy, 16, executor, closed::add);
+
+        // The stalled client takes the first event and never returns; four more fill its queue
+        for (int i = 0; i < 6; i++) {
+            slow.offer(SseEmitter.event().data(i));
+            fast.offer(SseEmitter.event().data(i));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> healthy.sent.get() == 6);
+        assertThat(closed).containsExactly(slow);
+    }
+
+    @Test
+    void failedSendClosesChannel() {
+        List<SseChannel> closed = new CopyOnWriteArrayList<>();
+        SseEmitter broken = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                throw new IllegalStateException("client went away");
+            }
+        };
+        SseChannel channel = new SseChannel(broken, 4, executor, closed::add);
+
+        channel.offer(SseEmitter.event().comment("ping"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> closed.contains(channel));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockUntil;
+        private final AtomicInteger sent = new AtomicInteger();
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            // Nothing to complete without a servlet response
+        }
+    }
+}